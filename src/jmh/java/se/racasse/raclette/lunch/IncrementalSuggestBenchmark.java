@@ -0,0 +1,116 @@
+package se.racasse.raclette.lunch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import se.racasse.raclette.person.FixedPersons;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.FixedPlaces;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// The suggestion path users hit: IncrementalSuggestor, warm, after the kind of
+// single change a command makes, and rebuilt from scratch for a new lunch time.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncrementalSuggestBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2017, 5, 1);
+
+    @Param({"100", "1000", "5000"})
+    public int places;
+
+    @Param({"10", "60"})
+    public int persons;
+
+    @Param({"3"})
+    public int tagsPerEntity;
+
+    @Param({"10", "100"})
+    public int votesPerPlace;
+
+    @Param({"250"})
+    public int historyDepth;
+
+    private LunchContext lunchContext;
+    private LunchContextLoader loader;
+    private PlaceService placeService;
+    private PersonService personService;
+    private ScoringPool scoringPool;
+    private SimpleMeterRegistry meterRegistry;
+    private IncrementalSuggestor suggestor;
+    private Person participant;
+    private Place place;
+    private boolean up;
+
+    @Setup
+    public void setUp() {
+        lunchContext = new SyntheticLunchData(42, places, persons, tagsPerEntity, votesPerPlace, historyDepth).generate();
+        loader = new LunchContextLoader(null, null, null) {
+            @Override
+            LunchContext load(LocalDate date) {
+                return lunchContext;
+            }
+        };
+        placeService = FixedPlaces.of(lunchContext.places);
+        personService = FixedPersons.of(lunchContext.participants);
+        scoringPool = new ScoringPool(0, 2000);
+        meterRegistry = new SimpleMeterRegistry();
+        suggestor = newSuggestor();
+        suggestor.suggest(DATE, 10);
+        participant = lunchContext.participants.iterator().next();
+        place = lunchContext.places.iterator().next();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scoringPool.shutdown();
+    }
+
+    @Benchmark
+    public SuggestResult suggestTop10() {
+        return suggestor.suggest(DATE, 10);
+    }
+
+    @Benchmark
+    public SuggestResult lunchVoteAndSuggest() {
+        up = !up;
+        suggestor.lunchVoteAdded(DATE, participant.id, place.id, up ? VoteType.UP : VoteType.DOWN);
+        return suggestor.suggest(DATE, 10);
+    }
+
+    @Benchmark
+    public SuggestResult leaveJoinAndSuggest() {
+        suggestor.participantRemoved(DATE, participant.id);
+        suggestor.participantAdded(DATE, participant.id);
+        return suggestor.suggest(DATE, 10);
+    }
+
+    @Benchmark
+    public SuggestResult rebuild() {
+        return newSuggestor().suggest(DATE, 10);
+    }
+
+    private IncrementalSuggestor newSuggestor() {
+        return new IncrementalSuggestor(loader, placeService, personService, scoringPool, meterRegistry, false);
+    }
+}
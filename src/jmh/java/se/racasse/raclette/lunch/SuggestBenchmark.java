@@ -0,0 +1,112 @@
+package se.racasse.raclette.lunch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceScore;
+import se.racasse.raclette.place.PlaceScoringContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int places;
+
+    @Param({"10", "60"})
+    public int persons;
+
+    @Param({"3"})
+    public int tagsPerEntity;
+
+    @Param({"10", "100"})
+    public int votesPerPlace;
+
+    @Param({"250"})
+    public int historyDepth;
+
+    private LunchContext lunchContext;
+    private List<PlaceScore> scores;
+
+    @Setup
+    public void setUp() {
+        lunchContext = new SyntheticLunchData(42, places, persons, tagsPerEntity, votesPerPlace, historyDepth).generate();
+        scores = new LunchSuggestor(lunchContext).suggest().scores;
+    }
+
+    @Benchmark
+    public SuggestResult suggest() {
+        return new LunchSuggestor(lunchContext).suggest();
+    }
+
+    @Benchmark
+    public SuggestResult suggestTop10() {
+        return new LunchSuggestor(lunchContext).suggest(10);
+    }
+
+    @Benchmark
+    public int acceptFiltering() {
+        int accepted = 0;
+        for (Place place : lunchContext.places) {
+            if (place.accepted(lunchContext.participants)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public float placeScore() {
+        float total = 0;
+        for (Place place : lunchContext.places) {
+            final PlaceScoringContext scoringContext = new PlaceScoringContext();
+            scoringContext.latestLunch = lunchContext.latestLunches.get(place.id);
+            scoringContext.persons = lunchContext.participants;
+            scoringContext.lunchUpVotes = lunchContext.upVotes.get(place.id);
+            scoringContext.lunchDownVotes = lunchContext.downVotes.get(place.id);
+            total += place.score(scoringContext);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int personScoreTags() {
+        int total = 0;
+        for (Place place : lunchContext.places) {
+            for (Person person : lunchContext.participants) {
+                total += person.scoreTags(place.tags);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public SuggestResult collectAll() {
+        return scores.stream()
+                .sorted(LunchSuggestor::compareScore)
+                .collect(SuggestResult.collector());
+    }
+
+    @Benchmark
+    public SuggestResult collectTop10() {
+        return scores.stream()
+                .collect(SuggestResult.topCollector(10, LunchSuggestor::compareScore));
+    }
+}
@@ -0,0 +1,124 @@
+package se.racasse.raclette.lunch;
+
+import com.google.common.collect.ImmutableList;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteCounter;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+final class SyntheticLunchData {
+
+    private static final int TAG_VOCABULARY = 64;
+    private static final Tag COMMON_TAG = new Tag("tag0");
+
+    private final Random random;
+    private final int places;
+    private final int persons;
+    private final int tagsPerEntity;
+    private final int votesPerPlace;
+    private final int historyDepth;
+
+    SyntheticLunchData(long seed, int places, int persons, int tagsPerEntity, int votesPerPlace, int historyDepth) {
+        this.random = new Random(seed);
+        this.places = places;
+        this.persons = persons;
+        this.tagsPerEntity = tagsPerEntity;
+        this.votesPerPlace = votesPerPlace;
+        this.historyDepth = historyDepth;
+    }
+
+    LunchContext generate() {
+        final List<Person> participants = new ArrayList<>();
+        for (int i = 0; i < persons; i++) {
+            participants.add(person(i + 1));
+        }
+        final List<Place> catalog = new ArrayList<>();
+        for (int i = 0; i < places; i++) {
+            catalog.add(place(i + 1));
+        }
+
+        // One decided lunch per day for `historyDepth` days, latest first
+        final Map<Integer, LocalDate> latestLunches = new HashMap<>();
+        final LocalDate today = LocalDate.now();
+        for (int day = historyDepth; day > 0; day--) {
+            latestLunches.put(catalog.get(random.nextInt(places)).id, today.minusDays(day));
+        }
+
+        final List<Vote> lunchVotes = new ArrayList<>();
+        final VoteCounter upVotes = new VoteCounter();
+        final VoteCounter downVotes = new VoteCounter();
+        for (Person person : participants) {
+            for (int v = 0; v < 2; v++) {
+                final Vote vote = vote(person.id, catalog.get(random.nextInt(places)).id);
+                lunchVotes.add(vote);
+                (vote.type == VoteType.UP ? upVotes : downVotes).increment(vote.placeId);
+            }
+        }
+
+        final LunchContext lunchContext = new LunchContext();
+        lunchContext.places = ImmutableList.copyOf(catalog);
+        lunchContext.participants = ImmutableList.copyOf(participants);
+        lunchContext.latestLunches = latestLunches;
+        lunchContext.lunchVotes = lunchVotes;
+        lunchContext.upVotes = upVotes;
+        lunchContext.downVotes = downVotes;
+        return lunchContext;
+    }
+
+    private Person person(int id) {
+        final Person person = new Person();
+        person.id = id;
+        person.name = "person" + id;
+        for (int t = 0; t < tagsPerEntity; t++) {
+            person.preferredTags.add(randomTag());
+        }
+        // Required tags are rare and common, otherwise nearly every place gets filtered out
+        if (random.nextInt(20) == 0) {
+            person.requiredTags.add(COMMON_TAG);
+        }
+        return person;
+    }
+
+    private Place place(int id) {
+        final Place place = new Place();
+        place.id = id;
+        place.name = "place" + id;
+        if (random.nextInt(10) != 0) {
+            place.tags.add(COMMON_TAG);
+        }
+        for (int t = 0; t < tagsPerEntity; t++) {
+            place.tags.add(randomTag());
+        }
+        final ImmutableList.Builder<Vote> up = ImmutableList.builder();
+        final ImmutableList.Builder<Vote> down = ImmutableList.builder();
+        for (int v = 0; v < votesPerPlace; v++) {
+            // Half of the voters are not among today's participants
+            final Vote vote = vote(random.nextInt(persons * 2) + 1, id);
+            (vote.type == VoteType.UP ? up : down).add(vote);
+        }
+        place.upVotes = up.build();
+        place.downVotes = down.build();
+        return place;
+    }
+
+    private Vote vote(int personId, int placeId) {
+        final Vote vote = new Vote();
+        vote.personId = personId;
+        vote.placeId = placeId;
+        vote.type = random.nextInt(3) == 0 ? VoteType.DOWN : VoteType.UP;
+        return vote;
+    }
+
+    private Tag randomTag() {
+        return new Tag("tag" + (1 + random.nextInt(TAG_VOCABULARY - 1)));
+    }
+}
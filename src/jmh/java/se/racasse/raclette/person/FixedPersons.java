@@ -0,0 +1,30 @@
+package se.racasse.raclette.person;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+// A PersonService over a fixed set of persons, for benchmarks that don't want a database.
+public final class FixedPersons {
+
+    private FixedPersons() {
+    }
+
+    public static PersonService of(Collection<Person> persons) {
+        final Map<Integer, Person> byId = persons.stream().collect(toMap(p -> p.id, Function.identity()));
+        return new PersonService(null, null) {
+            @Override
+            public Person getPerson(int personId) {
+                return byId.get(personId);
+            }
+
+            @Override
+            public Collection<Person> getPersons(Collection<Integer> personIds) {
+                return personIds.stream().map(byId::get).collect(toList());
+            }
+        };
+    }
+}
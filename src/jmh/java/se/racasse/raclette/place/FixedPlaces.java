@@ -0,0 +1,24 @@
+package se.racasse.raclette.place;
+
+import java.util.Collection;
+
+// A PlaceService over a fixed catalog, for benchmarks that don't want a database.
+public final class FixedPlaces {
+
+    private FixedPlaces() {
+    }
+
+    public static PlaceService of(Collection<Place> places) {
+        return new PlaceService(null, null, null) {
+            @Override
+            public Collection<Place> getAllPlaces() {
+                return places;
+            }
+
+            @Override
+            public long getCatalogVersion() {
+                return 1;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package se.racasse.raclette.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.VoteType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Startup cost of the journal engine: rebuilding the store from a year of lunch
+// history, either from the raw journal or from a compacted snapshot.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalReplayBenchmark {
+
+    private static final int JOURNAL_SIZE = 256 << 20;
+
+    @Param({"250"})
+    public int lunchDays;
+
+    @Param({"100"})
+    public int places;
+
+    @Param({"30"})
+    public int persons;
+
+    @Param({"false", "true"})
+    public boolean compacted;
+
+    private Path dir;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("raclette-journal");
+        final Journal journal = journal();
+        final MemoryStore store = new MemoryStore(journal);
+        store.open();
+        writeHistory(store, new Random(42));
+        if (compacted) {
+            store.compact();
+        }
+        journal.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public MemoryStore replay() throws IOException {
+        final Journal journal = journal();
+        final MemoryStore store = new MemoryStore(journal);
+        store.open();
+        journal.close();
+        return store;
+    }
+
+    private Journal journal() {
+        return new Journal(dir.toString(), JOURNAL_SIZE, false);
+    }
+
+    // Every weekday people join, vote, change their minds and get a lunch, and now
+    // and then someone votes on a place or edits their tags.
+    private void writeHistory(MemoryStore store, Random random) {
+        final InMemoryPlaceDao placeDao = new InMemoryPlaceDao(store);
+        final InMemoryPersonDao personDao = new InMemoryPersonDao(store);
+        final InMemoryLunchDao lunchDao = new InMemoryLunchDao(store);
+        for (int i = 0; i < places; i++) {
+            final Place place = new Place();
+            place.name = "place " + i;
+            final int placeId = placeDao.insertPlace(place);
+            placeDao.insertPlaceTag(placeId, "tag " + random.nextInt(20));
+        }
+        for (int i = 0; i < persons; i++) {
+            final int personId = personDao.insertPerson("person " + i);
+            personDao.insertTag(personId, "tag " + random.nextInt(20), TagType.PREFER);
+        }
+        LocalDate date = LocalDate.of(2016, 1, 4);
+        for (int day = 0; day < lunchDays; date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            lunchDao.insertLunchTime(date);
+            for (int personId = 1; personId <= persons; personId++) {
+                if (random.nextInt(10) < 7) {
+                    lunchDao.insertLunchParticipant(date, personId);
+                    lunchDao.insertLunchVote(personId, date, 1 + random.nextInt(places), VoteType.UP);
+                    lunchDao.insertLunchVote(personId, date, 1 + random.nextInt(places), VoteType.DOWN);
+                    if (random.nextInt(10) == 0) {
+                        lunchDao.removeLunchVotes(date, personId);
+                        lunchDao.insertLunchVote(personId, date, 1 + random.nextInt(places), VoteType.UP);
+                    }
+                }
+            }
+            for (int i = 0; i < 5; i++) {
+                placeDao.insertVote(1 + random.nextInt(persons), 1 + random.nextInt(places),
+                        random.nextBoolean() ? VoteType.UP : VoteType.DOWN);
+            }
+            if (random.nextInt(5) == 0) {
+                personDao.deleteTag(1 + random.nextInt(persons), "tag " + random.nextInt(20), TagType.PREFER);
+            }
+            lunchDao.setLunch(date, 1 + random.nextInt(places));
+            day++;
+        }
+    }
+}
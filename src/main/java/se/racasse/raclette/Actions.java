@@ -1,13 +1,14 @@
 package se.racasse.raclette;
 
 import se.racasse.raclette.lunch.AddLunchParticipantResponse;
+import se.racasse.raclette.lunch.AddLunchParticipantsResponse;
 import se.racasse.raclette.lunch.CreateLunchTimeResponse;
 import se.racasse.raclette.lunch.GetLunchStatusResponse;
 import se.racasse.raclette.lunch.LunchPlaceDecisionResponse;
 import se.racasse.raclette.lunch.RemoveLunchParticipantResponse;
 import se.racasse.raclette.person.AddPersonResponse;
 import se.racasse.raclette.person.GetPersonResponse;
-import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonRef;
 import se.racasse.raclette.person.PersonTagResponse;
 import se.racasse.raclette.place.AddPlaceResponse;
 import se.racasse.raclette.place.GetAllPlacesResponse;
@@ -15,16 +16,19 @@ import se.racasse.raclette.place.GetPlaceResponse;
 import se.racasse.raclette.place.PlaceTagResponse;
 import se.racasse.raclette.tag.TagType;
 import se.racasse.raclette.vote.AddVoteResponse;
+import se.racasse.raclette.vote.AddVotesResponse;
+import se.racasse.raclette.vote.VoteEntry;
 import se.racasse.raclette.vote.VoteType;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 
 public interface Actions {
 
     public interface AutomaticParticipantProvider {
         Collection<String> getParticipantsToBeAdded();
-        void participantAdded(Person participant);
+        void participantsAdded(Collection<PersonRef> participants);
     }
 
     void setAutomaticParticipantProvider(DefaultActions.AutomaticParticipantProvider automaticParticipantProvider);
@@ -45,6 +49,8 @@ public interface Actions {
 
     AddLunchParticipantResponse addLunchParticipant(String name);
 
+    AddLunchParticipantsResponse addLunchParticipants(Collection<String> names);
+
     RemoveLunchParticipantResponse removeLunchParticipant(String name);
 
     GetLunchStatusResponse getLunchStatus();
@@ -57,6 +63,8 @@ public interface Actions {
 
     AddVoteResponse addLunchVote(String personName, String placeName, VoteType type);
 
+    AddVotesResponse addVotes(List<VoteEntry> entries);
+
     PlaceTagResponse addPlaceTag(String name, String tag);
 
     PlaceTagResponse removePlaceTag(String name, String tag);
@@ -1,10 +1,15 @@
 package se.racasse.raclette;
 
+import com.google.common.base.Joiner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import se.racasse.raclette.lunch.AddLunchParticipantResponse;
+import se.racasse.raclette.lunch.AddLunchParticipantsResponse;
 import se.racasse.raclette.lunch.CreateLunchTimeResponse;
 import se.racasse.raclette.lunch.GetLunchStatusResponse;
 import se.racasse.raclette.lunch.LunchPlaceDecisionResponse;
@@ -14,24 +19,41 @@ import se.racasse.raclette.lunch.SuggestResult;
 import se.racasse.raclette.person.AddPersonResponse;
 import se.racasse.raclette.person.GetPersonResponse;
 import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonRef;
 import se.racasse.raclette.person.PersonService;
 import se.racasse.raclette.person.PersonTagResponse;
 import se.racasse.raclette.place.AddPlaceResponse;
 import se.racasse.raclette.place.GetAllPlacesResponse;
 import se.racasse.raclette.place.GetPlaceResponse;
 import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceRef;
 import se.racasse.raclette.place.PlaceService;
 import se.racasse.raclette.place.PlaceTagResponse;
 import se.racasse.raclette.tag.TagType;
 import se.racasse.raclette.vote.AddVoteResponse;
+import se.racasse.raclette.vote.AddVotesResponse;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteEntry;
+import se.racasse.raclette.vote.VoteEntryResult;
 import se.racasse.raclette.vote.VoteType;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
 @Component
 public class DefaultActions implements Actions {
     private final static Logger LOG = LoggerFactory.getLogger(DefaultActions.class);
@@ -39,14 +61,20 @@ public class DefaultActions implements Actions {
     private final LunchService lunchService;
     private final PersonService personService;
     private final PlaceService placeService;
+    private final int statusSuggestionCount;
+    private final TransactionTemplate transactionTemplate;
 
     private AutomaticParticipantProvider automaticParticipantProvider;
     private Consumer<CreateLunchTimeResponse> createdLunchTimeCallback;
 
-    public DefaultActions(LunchService lunchService, PersonService personService, PlaceService placeService) {
+    public DefaultActions(LunchService lunchService, PersonService personService, PlaceService placeService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${raclette.suggestion.status-size:10}") int statusSuggestionCount) {
         this.lunchService = lunchService;
         this.personService = personService;
         this.placeService = placeService;
+        this.statusSuggestionCount = statusSuggestionCount;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -63,12 +91,13 @@ public class DefaultActions implements Actions {
     public void addAutomaticParticipants() {
         if (automaticParticipantProvider != null) {
             LOG.info("Adding automatic participants");
-            automaticParticipantProvider.getParticipantsToBeAdded().forEach(name -> {
-                final AddLunchParticipantResponse response = addLunchParticipant(name);
-                if (response.successful()) {
-                    automaticParticipantProvider.participantAdded(response.participant.get());
-                }
-            });
+            final AddLunchParticipantsResponse response = addLunchParticipants(automaticParticipantProvider.getParticipantsToBeAdded());
+            if (!response.added.isEmpty()) {
+                automaticParticipantProvider.participantsAdded(response.added);
+            }
+            if (!response.unknownNames.isEmpty()) {
+                LOG.info("Not adding unknown automatic participants {}", response.unknownNames);
+            }
         } else {
             LOG.info("No automatic participant provider registered");
         }
@@ -104,7 +133,7 @@ public class DefaultActions implements Actions {
 
     @Override
     public AddPlaceResponse addPlace(String name) {
-        final Optional<Place> existingPlace = placeService.getPlaceByName(name);
+        final Optional<PlaceRef> existingPlace = placeService.getPlaceRef(name);
         if (existingPlace.isPresent()) {
             final AddPlaceResponse response = new AddPlaceResponse(false);
             response.errorMessage = String.format("There is already a place called '%s'", name);
@@ -131,7 +160,7 @@ public class DefaultActions implements Actions {
 
     @Override
     public AddPersonResponse addPerson(String name) {
-        final Optional<Person> person = personService.getPersonByName(name);
+        final Optional<PersonRef> person = personService.getPersonRef(name);
         if (person.isPresent()) {
             final AddPersonResponse response = new AddPersonResponse(false);
             response.errorMessage = String.format("'%s' is already added", name);
@@ -159,11 +188,11 @@ public class DefaultActions implements Actions {
 
     @Override
     public AddLunchParticipantResponse addLunchParticipant(String name) {
-        final Optional<Person> person = personService.getPersonByName(name);
+        final Optional<PersonRef> person = personService.getPersonRef(name);
         final AddLunchParticipantResponse response = new AddLunchParticipantResponse(person.isPresent());
         if (person.isPresent()) {
             final LocalDate lunchTime = lunchService.getCurrentLunchTime();
-            lunchService.addLunchTimeParticipant(lunchTime, name);
+            lunchService.addLunchTimeParticipant(lunchTime, person.get().id);
         } else {
             response.errorMessage = String.format("I know no person called '%s'", name);
         }
@@ -171,13 +200,34 @@ public class DefaultActions implements Actions {
         return response;
     }
 
+    // Names are matched case insensitively, like the name column.
+    @Override
+    public AddLunchParticipantsResponse addLunchParticipants(Collection<String> names) {
+        final Collection<PersonRef> persons = personService.getPersonRefs(names);
+        final Set<String> knownNames = persons.stream().map(p -> p.name.toLowerCase()).collect(toSet());
+        final List<String> unknownNames = names.stream().filter(name -> !knownNames.contains(name.toLowerCase())).collect(toList());
+        final AddLunchParticipantsResponse response = new AddLunchParticipantsResponse(unknownNames.isEmpty());
+        if (!persons.isEmpty()) {
+            final LocalDate lunchTime = lunchService.getCurrentLunchTime();
+            final Set<Integer> added = new HashSet<>(lunchService.addLunchTimeParticipants(lunchTime,
+                    persons.stream().map(p -> p.id).collect(toList())));
+            response.added = persons.stream().filter(p -> added.contains(p.id)).collect(toList());
+        }
+        if (!unknownNames.isEmpty()) {
+            response.errorMessage = String.format("I know no person called '%s'", Joiner.on("', '").join(unknownNames));
+        }
+        response.participants = persons;
+        response.unknownNames = unknownNames;
+        return response;
+    }
+
     @Override
     public RemoveLunchParticipantResponse removeLunchParticipant(String name) {
-        final Optional<Person> person = personService.getPersonByName(name);
+        final Optional<PersonRef> person = personService.getPersonRef(name);
         final RemoveLunchParticipantResponse response = new RemoveLunchParticipantResponse(person.isPresent());
         if (person.isPresent()) {
             final LocalDate lunchTime = lunchService.getCurrentLunchTime();
-            lunchService.removeLunchTimeParticipant(lunchTime, name);
+            lunchService.removeLunchTimeParticipant(lunchTime, person.get().id);
         } else {
             response.errorMessage = String.format("I know no person called '%s'", name);
         }
@@ -193,7 +243,7 @@ public class DefaultActions implements Actions {
         response.participants = lunchService.getLunchTimeParticipants(lunchTime);
         response.places = placeService.getAllPlaces();
         response.votesByPlace = lunchService.getLunchTimeVotesByPlace(lunchTime);
-        response.suggestResult = lunchService.suggestLunchPlace(lunchTime);
+        response.suggestResult = lunchService.suggestLunchPlace(lunchTime, statusSuggestionCount);
         return response;
     }
 
@@ -225,13 +275,13 @@ public class DefaultActions implements Actions {
 
     @Override
     public AddVoteResponse addVote(String personName, String placeName, VoteType type) {
-        final Optional<Person> person = personService.getPersonByName(personName);
+        final Optional<PersonRef> person = personService.getPersonRef(personName);
         if (!person.isPresent()) {
             final AddVoteResponse response = new AddVoteResponse(false);
             response.errorMessage = String.format("I know no person called '%s'", personName);
             return response;
         }
-        final Optional<Place> place = placeService.getPlaceByName(placeName);
+        final Optional<PlaceRef> place = placeService.getPlaceRef(placeName);
         if (!place.isPresent()) {
             final AddVoteResponse response = new AddVoteResponse(false);
             response.errorMessage = String.format("I know no place called '%s'", placeName);
@@ -246,19 +296,19 @@ public class DefaultActions implements Actions {
 
     @Override
     public AddVoteResponse addLunchVote(String personName, String placeName, VoteType type) {
-        final Optional<Person> person = personService.getPersonByName(personName);
+        final Optional<PersonRef> person = personService.getPersonRef(personName);
         if (!person.isPresent()) {
             final AddVoteResponse response = new AddVoteResponse(false);
             response.errorMessage = String.format("I know no person called '%s'", personName);
             return response;
         }
         final LocalDate lunchTime = lunchService.getCurrentLunchTime();
-        if (!lunchService.isLunchTimeParticipant(lunchTime, personName)) {
+        if (!lunchService.isLunchTimeParticipant(lunchTime, person.get().id)) {
             final AddVoteResponse response = new AddVoteResponse(false);
             response.errorMessage = String.format("%s must be a lunch participant to do lunch voting", personName);
             return response;
         }
-        final Optional<Place> place = placeService.getPlaceByName(placeName);
+        final Optional<PlaceRef> place = placeService.getPlaceRef(placeName);
         if (!place.isPresent()) {
             final AddVoteResponse response = new AddVoteResponse(false);
             response.errorMessage = String.format("I know no place called '%s'", placeName);
@@ -271,9 +321,60 @@ public class DefaultActions implements Actions {
         return response;
     }
 
+    // Entries are checked against one person query, the place catalog and one
+    // participant query, and the accepted ones are written in a single transaction.
+    @Override
+    public AddVotesResponse addVotes(List<VoteEntry> entries) {
+        final Map<String, PersonRef> persons = new HashMap<>();
+        personService.getPersonRefs(entries.stream().filter(Objects::nonNull).map(e -> e.person).filter(Objects::nonNull)
+                .distinct().collect(toList()))
+                .forEach(person -> persons.put(person.name.toLowerCase(), person));
+        final LocalDate lunchTime = entries.stream().anyMatch(e -> e != null && e.lunch) ? lunchService.getCurrentLunchTime() : null;
+        final Set<Integer> participants = lunchTime != null
+                ? new HashSet<>(lunchService.getLunchTimeParticipantIds(lunchTime))
+                : Collections.emptySet();
+        final List<Vote> placeVotes = new ArrayList<>();
+        final List<Vote> lunchVotes = new ArrayList<>();
+        final List<VoteEntryResult> results = new ArrayList<>();
+        for (VoteEntry entry : entries) {
+            if (entry == null) {
+                results.add(VoteEntryResult.rejected("A vote must name a person, a place and UP or DOWN"));
+                continue;
+            }
+            final PersonRef person = entry.person != null ? persons.get(entry.person.toLowerCase()) : null;
+            final Optional<PlaceRef> place = entry.place != null ? placeService.getPlaceRef(entry.place) : Optional.empty();
+            if (person == null) {
+                results.add(VoteEntryResult.rejected(String.format("I know no person called '%s'", entry.person)));
+            } else if (!place.isPresent()) {
+                results.add(VoteEntryResult.rejected(String.format("I know no place called '%s'", entry.place)));
+            } else if (entry.type == null) {
+                results.add(VoteEntryResult.rejected("A vote must be UP or DOWN"));
+            } else if (entry.lunch && !participants.contains(person.id)) {
+                results.add(VoteEntryResult.rejected(String.format("%s must be a lunch participant to do lunch voting", person.name)));
+            } else {
+                final Vote vote = new Vote();
+                vote.personId = person.id;
+                vote.personName = person.name;
+                vote.placeId = place.get().id;
+                vote.placeName = place.get().name;
+                vote.type = entry.type;
+                (entry.lunch ? lunchVotes : placeVotes).add(vote);
+                results.add(VoteEntryResult.accepted());
+            }
+        }
+        transactionTemplate.execute(status -> {
+            placeService.addVotes(placeVotes);
+            lunchService.addLunchVotes(lunchTime, lunchVotes);
+            return null;
+        });
+        final AddVotesResponse response = new AddVotesResponse(results.stream().allMatch(r -> r.accepted));
+        response.results = results;
+        return response;
+    }
+
     @Override
     public PlaceTagResponse addPlaceTag(String name, String tag) {
-        final Optional<Place> place = placeService.getPlaceByName(name);
+        final Optional<PlaceRef> place = placeService.getPlaceRef(name);
         final PlaceTagResponse response = new PlaceTagResponse(place.isPresent());
         if (place.isPresent()) {
             placeService.addPlaceTag(place.get().id, tag);
@@ -286,7 +387,7 @@ public class DefaultActions implements Actions {
 
     @Override
     public PlaceTagResponse removePlaceTag(String name, String tag) {
-        final Optional<Place> place = placeService.getPlaceByName(name);
+        final Optional<PlaceRef> place = placeService.getPlaceRef(name);
         final PlaceTagResponse response = new PlaceTagResponse(place.isPresent());
         if (place.isPresent()) {
             placeService.removePlaceTag(place.get().id, tag);
@@ -299,7 +400,7 @@ public class DefaultActions implements Actions {
 
     @Override
     public PersonTagResponse addPersonTag(String name, String tag, TagType type) {
-        final Optional<Person> person = personService.getPersonByName(name);
+        final Optional<PersonRef> person = personService.getPersonRef(name);
         final PersonTagResponse response = new PersonTagResponse(person.isPresent());
         if (person.isPresent()) {
             personService.addTag(person.get().id, tag, type);
@@ -312,7 +413,7 @@ public class DefaultActions implements Actions {
 
     @Override
     public PersonTagResponse removePersonTag(String name, String tag, TagType type) {
-        final Optional<Person> person = personService.getPersonByName(name);
+        final Optional<PersonRef> person = personService.getPersonRef(name);
         final PersonTagResponse response = new PersonTagResponse(person.isPresent());
         if (person.isPresent()) {
             personService.removeTag(person.get().id, tag, type);
@@ -4,7 +4,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import se.racasse.raclette.Actions;
-import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonRef;
 
 import javax.annotation.PostConstruct;
 import java.util.Collection;
@@ -32,8 +32,8 @@ class HipchatHandler {
             }
 
             @Override
-            public void participantAdded(Person participant) {
-                // This is called when a person is added as a participant by the automatic routine.
+            public void participantsAdded(Collection<PersonRef> participants) {
+                // This is called with the persons added as participants by the automatic routine.
                 // This event can, for example, be broadcasted on hipchat.
             }
         });
@@ -0,0 +1,16 @@
+package se.racasse.raclette.lunch;
+
+import se.racasse.raclette.ActionResponse;
+import se.racasse.raclette.person.PersonRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+public class AddLunchParticipantsResponse extends ActionResponse {
+    public Collection<PersonRef> participants = new ArrayList<>();
+    public Collection<PersonRef> added = new ArrayList<>();
+    public Collection<String> unknownNames = new ArrayList<>();
+    public AddLunchParticipantsResponse(boolean success) {
+        super(success);
+    }
+}
@@ -0,0 +1,270 @@
+package se.racasse.raclette.lunch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceScore;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+@Component
+class IncrementalSuggestor {
+    private final static Logger LOG = LoggerFactory.getLogger(IncrementalSuggestor.class);
+
+    private final LunchContextLoader lunchContextLoader;
+    private final PlaceService placeService;
+    private final PersonService personService;
+    private final ScoringPool scoringPool;
+    private final boolean verify;
+    private final DistributionSummary placesSummary;
+    private final DistributionSummary acceptedSummary;
+    private final DistributionSummary participantsSummary;
+
+    private LocalDate date;
+    private long catalogVersion;
+    private final Map<Integer, Person> participants = new HashMap<>();
+    private final Map<Integer, Map<Integer, VoteType>> lunchVotes = new HashMap<>();
+    private final Map<Integer, PlaceState> places = new HashMap<>();
+
+    IncrementalSuggestor(LunchContextLoader lunchContextLoader, PlaceService placeService, PersonService personService,
+                         ScoringPool scoringPool, MeterRegistry meterRegistry,
+                         @Value("${raclette.suggestion.verify:false}") boolean verify) {
+        this.lunchContextLoader = lunchContextLoader;
+        this.placeService = placeService;
+        this.personService = personService;
+        this.scoringPool = scoringPool;
+        this.verify = verify;
+        this.placesSummary = meterRegistry.summary("raclette.suggestion.places");
+        this.acceptedSummary = meterRegistry.summary("raclette.suggestion.accepted");
+        this.participantsSummary = meterRegistry.summary("raclette.suggestion.participants");
+    }
+
+    synchronized SuggestResult suggest(LocalDate date, int limit) {
+        if (date.equals(this.date)) {
+            sync();
+        } else {
+            rebuild(date);
+        }
+        final SuggestResult result = rank(limit);
+        placesSummary.record(places.size());
+        acceptedSummary.record(result.totalCount);
+        participantsSummary.record(participants.size());
+        if (verify) {
+            final SuggestResult expected = new LunchSuggestor(lunchContextLoader.load(date), scoringPool).suggest(limit);
+            if (!sameRanking(result, expected)) {
+                LOG.warn("Incremental suggestion for {} differs from full recompute, rebuilding", date);
+                this.date = null;
+                return expected;
+            }
+        }
+        return result;
+    }
+
+    synchronized void participantAdded(LocalDate date, int personId) {
+        if (!date.equals(this.date) || participants.containsKey(personId)) {
+            return;
+        }
+        addParticipant(personService.getPerson(personId));
+    }
+
+    synchronized void participantsAdded(LocalDate date, Collection<Integer> personIds) {
+        if (!date.equals(this.date)) {
+            return;
+        }
+        final List<Integer> added = personIds.stream().filter(id -> !participants.containsKey(id)).collect(toList());
+        personService.getPersons(added).forEach(this::addParticipant);
+    }
+
+    private void addParticipant(Person person) {
+        participants.put(person.id, person);
+        places.values().forEach(state -> state.add(person, 1));
+        lunchVotes.getOrDefault(person.id, new HashMap<>()).forEach((placeId, type) -> addLunchVote(placeId, type, 1));
+    }
+
+    synchronized void participantRemoved(LocalDate date, int personId) {
+        if (!date.equals(this.date)) {
+            return;
+        }
+        final Person person = participants.remove(personId);
+        if (person != null) {
+            places.values().forEach(state -> state.add(person, -1));
+            lunchVotes.getOrDefault(personId, new HashMap<>()).forEach((placeId, type) -> addLunchVote(placeId, type, -1));
+        }
+        lunchVotes.remove(personId);
+    }
+
+    synchronized void lunchVoteAdded(LocalDate date, int personId, int placeId, VoteType type) {
+        if (!date.equals(this.date)) {
+            return;
+        }
+        final VoteType previous = lunchVotes.computeIfAbsent(personId, id -> new HashMap<>()).put(placeId, type);
+        if (participants.containsKey(personId)) {
+            if (previous != null) {
+                addLunchVote(placeId, previous, -1);
+            }
+            addLunchVote(placeId, type, 1);
+        }
+    }
+
+    synchronized void lunchDecided(LocalDate date) {
+        if (this.date != null && date.isBefore(this.date)) {
+            this.date = null;
+        }
+    }
+
+    private void rebuild(LocalDate date) {
+        catalogVersion = placeService.getCatalogVersion();
+        final LunchContext lunchContext = lunchContextLoader.load(date);
+        this.date = date;
+        participants.clear();
+        lunchContext.participants.forEach(person -> participants.put(person.id, person));
+        lunchVotes.clear();
+        lunchContext.lunchVotes.forEach(this::recordLunchVote);
+        places.clear();
+        final List<PlaceState> states = scoringPool.shouldParallelize(lunchContext.places.size())
+                ? scoringPool.invoke(() -> createStates(lunchContext.places.parallelStream(), lunchContext))
+                : createStates(lunchContext.places.stream(), lunchContext);
+        states.forEach(state -> places.put(state.place.id, state));
+    }
+
+    private List<PlaceState> createStates(Stream<Place> places, LunchContext lunchContext) {
+        return places
+                .map(place -> createState(place, lunchContext.latestLunches.get(place.id)))
+                .collect(toList());
+    }
+
+    private void recordLunchVote(Vote vote) {
+        lunchVotes.computeIfAbsent(vote.personId, id -> new HashMap<>()).put(vote.placeId, vote.type);
+    }
+
+    // Persons are synced before places so that a changed person is subtracted with the
+    // same place data it was added with.
+    private void sync() {
+        personService.getPersons(participants.keySet()).forEach(person -> {
+            final Person previous = participants.put(person.id, person);
+            if (previous != person) {
+                places.values().forEach(state -> {
+                    state.add(previous, -1);
+                    state.add(person, 1);
+                });
+            }
+        });
+        final long version = placeService.getCatalogVersion();
+        if (version != catalogVersion) {
+            catalogVersion = version;
+            final Map<Integer, Place> current = placeService.getAllPlaces().stream().collect(toMap(p -> p.id, p -> p));
+            places.keySet().retainAll(current.keySet());
+            current.values().forEach(place -> {
+                final PlaceState state = places.get(place.id);
+                if (state == null || state.place != place) {
+                    places.put(place.id, createState(place, state != null ? state.latestLunch : null));
+                }
+            });
+        }
+    }
+
+    private PlaceState createState(Place place, LocalDate latestLunch) {
+        final PlaceState state = new PlaceState(place, latestLunch);
+        participants.values().forEach(person -> state.add(person, 1));
+        participants.keySet().forEach(personId -> {
+            final VoteType type = lunchVotes.getOrDefault(personId, new HashMap<>()).get(place.id);
+            if (type != null) {
+                state.addLunchVote(type, 1);
+            }
+        });
+        return state;
+    }
+
+    private void addLunchVote(int placeId, VoteType type, int sign) {
+        final PlaceState state = places.get(placeId);
+        if (state != null) {
+            state.addLunchVote(type, sign);
+        }
+    }
+
+    // Parallel streams run in the pool they are started from, see LunchSuggestor.
+    private SuggestResult rank(int limit) {
+        if (scoringPool.shouldParallelize(places.size())) {
+            return scoringPool.invoke(() -> rank(places.values().parallelStream(), limit));
+        }
+        return rank(places.values().stream(), limit);
+    }
+
+    private static SuggestResult rank(Stream<PlaceState> states, int limit) {
+        return states
+                .filter(state -> state.rejections == 0)
+                .map(PlaceState::toPlaceScore)
+                .collect(SuggestResult.topCollector(limit, LunchSuggestor::compareScore));
+    }
+
+    private static boolean sameRanking(SuggestResult actual, SuggestResult expected) {
+        if (actual.totalCount != expected.totalCount || actual.scores.size() != expected.scores.size()) {
+            return false;
+        }
+        for (int i = 0; i < actual.scores.size(); i++) {
+            final PlaceScore a = actual.scores.get(i);
+            final PlaceScore e = expected.scores.get(i);
+            if (a.place.id != e.place.id || Float.compare(a.score, e.score) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class PlaceState {
+        final Place place;
+        final LocalDate latestLunch;
+        int rejections;
+        int tagScore;
+        int lunchUpVotes;
+        int lunchDownVotes;
+        int upVotes;
+        int downVotes;
+
+        PlaceState(Place place, LocalDate latestLunch) {
+            this.place = place;
+            this.latestLunch = latestLunch;
+        }
+
+        void add(Person person, int sign) {
+            if (!person.accepts(place.tags)) {
+                rejections += sign;
+            }
+            tagScore += sign * person.scoreTags(place.tags);
+            upVotes += sign * place.countVotes(VoteType.UP, person.id);
+            downVotes += sign * place.countVotes(VoteType.DOWN, person.id);
+        }
+
+        void addLunchVote(VoteType type, int sign) {
+            if (type == VoteType.UP) {
+                lunchUpVotes += sign;
+            } else {
+                lunchDownVotes += sign;
+            }
+        }
+
+        PlaceScore toPlaceScore() {
+            final PlaceScore placeScore = new PlaceScore();
+            placeScore.place = place;
+            placeScore.score = Place.score(tagScore, lunchUpVotes, lunchDownVotes, upVotes, downVotes, latestLunch);
+            return placeScore;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package se.racasse.raclette.lunch;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+@Profile("!memory")
+class JdbcLunchDao implements LunchDao {
+
+    private static final RowMapper<Vote> LUNCH_VOTE_ROW_MAPPER = (resultSet, rowNum) -> {
+        final Vote vote = new Vote();
+        vote.personId = resultSet.getInt("person_id");
+        vote.personName = resultSet.getString("person_name");
+        vote.placeId = resultSet.getInt("place_id");
+        vote.placeName = resultSet.getString("place_name");
+        vote.type = VoteType.fromInitial(resultSet.getString("type"));
+        return vote;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    JdbcLunchDao(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertLunchTime(LocalDate date) {
+        jdbcTemplate.update("insert into lunch_time (date) values (:date)",
+                new MapSqlParameterSource().addValue("date", date));
+    }
+
+    @Override
+    public boolean isParticipant(LocalDate date, int personId) {
+        return jdbcTemplate.queryForObject("select count(*) from lunch_participant where person_id = :personId and lunch_time_id = :date",
+                new MapSqlParameterSource().addValue("personId", personId).addValue("date", date),
+                SingleColumnRowMapper.newInstance(Integer.class)) > 0;
+    }
+
+    @Override
+    public void insertLunchParticipant(LocalDate date, int personId) {
+        jdbcTemplate.update("insert into lunch_participant (person_id, lunch_time_id) values (:personId, :date)",
+                new MapSqlParameterSource().addValue("personId", personId).addValue("date", date));
+    }
+
+    @Override
+    public void insertLunchParticipants(LocalDate date, Collection<Integer> personIds) {
+        if (personIds.isEmpty()) {
+            return;
+        }
+        final List<Object[]> rows = personIds.stream().map(personId -> new Object[]{personId, date}).collect(toList());
+        jdbcTemplate.update("insert into lunch_participant (person_id, lunch_time_id) values :rows " +
+                        "on duplicate key update person_id = person_id",
+                new MapSqlParameterSource("rows", rows));
+    }
+
+    @Override
+    public void removeLunchParticipant(LocalDate date, int personId) {
+        jdbcTemplate.update("delete from lunch_participant where person_id = :personId and lunch_time_id = :date",
+                new MapSqlParameterSource().addValue("personId", personId).addValue("date", date));
+    }
+
+    @Override
+    public void setLunch(LocalDate date, int placeId) {
+        jdbcTemplate.update("insert into lunch (lunch_time_id, place_id) values (:date, :placeId) on duplicate key update place_id = :placeId",
+                new MapSqlParameterSource().addValue("date", date).addValue("placeId", placeId));
+    }
+
+    @Override
+    public LocalDate getLatestLunchTime() {
+        return jdbcTemplate.queryForObject("select max(date) from lunch_time",
+                new MapSqlParameterSource(), SingleColumnRowMapper.newInstance(LocalDate.class));
+    }
+
+    @Override
+    public Map<Integer, LocalDate> getLatestLunchPerPlace(LocalDate before) {
+        final Map<Integer, LocalDate> lunches = new HashMap<>();
+        jdbcTemplate.query("select place_id, max(lunch_time_id) as latest from lunch where lunch_time_id < :before group by place_id",
+                new MapSqlParameterSource("before", before),
+                resultSet -> {
+                    lunches.put(resultSet.getInt("place_id"), resultSet.getDate("latest").toLocalDate());
+                });
+        return lunches;
+    }
+
+    @Override
+    public Collection<Integer> getLunchParticipants(LocalDate date) {
+        return jdbcTemplate.query("select person_id from lunch_participant where lunch_time_id = :date",
+                new MapSqlParameterSource("date", date), SingleColumnRowMapper.newInstance(Integer.class));
+    }
+
+    @Override
+    public void insertLunchVote(int personId, LocalDate lunchTime, int placeId, VoteType type) {
+        jdbcTemplate.update("insert into lunch_vote (person_id, lunch_time_id, place_id, type) " +
+                        "values (:personId, :lunchTimeId, :placeId, :type) " +
+                        "on duplicate key update type = :type",
+                new MapSqlParameterSource()
+                        .addValue("personId", personId)
+                        .addValue("lunchTimeId", lunchTime)
+                        .addValue("placeId", placeId)
+                        .addValue("type", type.name().substring(0, 1)));
+    }
+
+    @Override
+    public void insertLunchVotes(LocalDate lunchTime, Collection<Vote> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into lunch_vote (person_id, lunch_time_id, place_id, type) " +
+                        "values (:personId, :lunchTimeId, :placeId, :type) " +
+                        "on duplicate key update type = :type",
+                votes.stream().map(vote -> new MapSqlParameterSource()
+                        .addValue("personId", vote.personId)
+                        .addValue("lunchTimeId", lunchTime)
+                        .addValue("placeId", vote.placeId)
+                        .addValue("type", vote.type.name().substring(0, 1))).toArray(SqlParameterSource[]::new));
+    }
+
+    @Override
+    public Collection<Vote> getParticipantLunchVotes(LocalDate lunchTime) {
+        return jdbcTemplate.query("select v.*, pe.name as person_name, pl.name as place_name from lunch_vote v " +
+                        "join lunch_participant lp on lp.person_id = v.person_id and lp.lunch_time_id = v.lunch_time_id " +
+                        "left join person pe on pe.id = v.person_id " +
+                        "left join place pl on pl.id = v.place_id " +
+                        "where v.lunch_time_id = :lunchTimeId",
+                new MapSqlParameterSource("lunchTimeId", lunchTime),
+                LUNCH_VOTE_ROW_MAPPER);
+    }
+
+    @Override
+    public Collection<Vote> getLunchVotesByPlaces(LocalDate lunchTime, Collection<Integer> placeIds) {
+        return jdbcTemplate.query("select v.*, pe.name as person_name, pl.name as place_name from lunch_vote v " +
+                        "left join person pe on pe.id = v.person_id " +
+                        "left join place pl on pl.id = v.place_id " +
+                        "where v.lunch_time_id = :lunchTimeId " +
+                        "and v.place_id in (:placeIds)",
+                new MapSqlParameterSource()
+                        .addValue("lunchTimeId", lunchTime)
+                        .addValue("placeIds", placeIds),
+                LUNCH_VOTE_ROW_MAPPER);
+    }
+
+    @Override
+    public void removeLunchVotes(LocalDate lunchTime, int personId) {
+        jdbcTemplate.update("delete from lunch_vote where lunch_time_id = :lunchTimeId and person_id = :personId",
+                new MapSqlParameterSource().addValue("lunchTimeId", lunchTime).addValue("personId", personId));
+    }
+}
@@ -1,9 +1,9 @@
 package se.racasse.raclette.lunch;
 
-import com.google.common.collect.Multimap;
 import se.racasse.raclette.person.Person;
 import se.racasse.raclette.place.Place;
 import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteCounter;
 
 import java.time.LocalDate;
 import java.util.Collection;
@@ -12,7 +12,8 @@ import java.util.Map;
 class LunchContext {
     Collection<Place> places;
     Collection<Person> participants;
-    Multimap<Integer, Vote> upVotes;
-    Multimap<Integer, Vote> downVotes;
+    Collection<Vote> lunchVotes;
+    VoteCounter upVotes;
+    VoteCounter downVotes;
     Map<Integer, LocalDate> latestLunches;
 }
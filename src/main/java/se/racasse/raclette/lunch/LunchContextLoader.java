@@ -0,0 +1,46 @@
+package se.racasse.raclette.lunch;
+
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteCounter;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Component
+class LunchContextLoader {
+
+    private final LunchDao lunchDao;
+    private final PersonService personService;
+    private final PlaceService placeService;
+
+    LunchContextLoader(LunchDao lunchDao, PersonService personService, PlaceService placeService) {
+        this.lunchDao = lunchDao;
+        this.personService = personService;
+        this.placeService = placeService;
+    }
+
+    LunchContext load(LocalDate date) {
+        final LunchContext lunchContext = new LunchContext();
+        lunchContext.places = placeService.getAllPlaces();
+        lunchContext.participants = personService.getParticipatingPersons(date);
+        lunchContext.latestLunches = lunchDao.getLatestLunchPerPlace(date);
+        lunchContext.lunchVotes = lunchDao.getParticipantLunchVotes(date);
+        lunchContext.upVotes = countByPlace(lunchContext.lunchVotes, VoteType.UP);
+        lunchContext.downVotes = countByPlace(lunchContext.lunchVotes, VoteType.DOWN);
+        return lunchContext;
+    }
+
+    private static VoteCounter countByPlace(Collection<Vote> votes, VoteType type) {
+        final VoteCounter counter = new VoteCounter();
+        for (Vote vote : votes) {
+            if (vote.type == type) {
+                counter.increment(vote.placeId);
+            }
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,52 @@
+package se.racasse.raclette.lunch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+
+// A change to a lunch, small enough to push to every open lunch event stream.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LunchEvent {
+
+    public enum Type {
+        JOINED, LEFT, VOTED, LEADER, DECIDED
+    }
+
+    public final Type type;
+    @JsonSerialize(using = ToStringSerializer.class)
+    public final LocalDate date;
+    public final Integer personId;
+    public final Integer placeId;
+    public final VoteType voteType;
+
+    private LunchEvent(Type type, LocalDate date, Integer personId, Integer placeId, VoteType voteType) {
+        this.type = type;
+        this.date = date;
+        this.personId = personId;
+        this.placeId = placeId;
+        this.voteType = voteType;
+    }
+
+    static LunchEvent joined(LocalDate date, int personId) {
+        return new LunchEvent(Type.JOINED, date, personId, null, null);
+    }
+
+    static LunchEvent left(LocalDate date, int personId) {
+        return new LunchEvent(Type.LEFT, date, personId, null, null);
+    }
+
+    static LunchEvent voted(LocalDate date, int personId, int placeId, VoteType type) {
+        return new LunchEvent(Type.VOTED, date, personId, placeId, type);
+    }
+
+    static LunchEvent leader(LocalDate date, int placeId) {
+        return new LunchEvent(Type.LEADER, date, null, placeId, null);
+    }
+
+    static LunchEvent decided(LocalDate date, int placeId) {
+        return new LunchEvent(Type.DECIDED, date, null, placeId, null);
+    }
+}
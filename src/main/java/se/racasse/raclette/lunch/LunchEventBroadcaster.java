@@ -0,0 +1,166 @@
+package se.racasse.raclette.lunch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Fans lunch events out to subscribers without ever blocking the publisher.
+// Every subscriber has its own queue of at most raclette.lunch-events.buffer
+// events, delivered in order. A subscriber is dropped when it falls that far
+// behind, or when a single delivery takes longer than raclette.lunch-events.send-timeout
+// ms. Deliveries don't share a fixed set of workers, so a client whose socket
+// stopped accepting data only holds up its own delivery thread, which is
+// interrupted when the client is dropped.
+@Component
+public class LunchEventBroadcaster {
+
+    private final static Logger LOG = LoggerFactory.getLogger(LunchEventBroadcaster.class);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("lunch-events-"));
+    private final ScheduledExecutorService watchdog =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("lunch-events-watchdog-"));
+    private final int buffer;
+    private final long sendTimeoutMillis;
+    private final Counter dropped;
+    private final Set<Subscription> subscriptions = new CopyOnWriteArraySet<>();
+
+    LunchEventBroadcaster(MeterRegistry meterRegistry,
+                          @Value("${raclette.lunch-events.buffer:100}") int buffer,
+                          @Value("${raclette.lunch-events.send-timeout:5000}") long sendTimeoutMillis) {
+        this.buffer = buffer;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.dropped = meterRegistry.counter("raclette.lunch.events.dropped");
+        meterRegistry.gauge("raclette.lunch.events.subscribers", subscriptions, Set::size);
+        final long period = Math.max(sendTimeoutMillis / 4, 1);
+        watchdog.scheduleWithFixedDelay(this::dropStalled, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // The sink may block; onDrop is called once if the subscriber is dropped for being too slow.
+    Subscription subscribe(Consumer<LunchEvent> sink, Runnable onDrop) {
+        final Subscription subscription = new Subscription(sink, onDrop);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    void publish(LunchEvent event) {
+        subscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void dropStalled() {
+        final long now = System.currentTimeMillis();
+        subscriptions.forEach(subscription -> subscription.dropIfStalled(now));
+    }
+
+    public class Subscription {
+        private final Consumer<LunchEvent> sink;
+        private final Runnable onDrop;
+        // Guarded by this.
+        private final Deque<LunchEvent> queue = new ArrayDeque<>();
+        private boolean delivering;
+        private Thread sender;
+        private long sendingSince;
+
+        private Subscription(Consumer<LunchEvent> sink, Runnable onDrop) {
+            this.sink = sink;
+            this.onDrop = onDrop;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        void offer(LunchEvent event) {
+            synchronized (this) {
+                if (queue.size() >= buffer) {
+                    queue.clear();
+                    drop();
+                    return;
+                }
+                queue.add(event);
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            try {
+                executor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                cancel();
+            }
+        }
+
+        private void deliver() {
+            while (true) {
+                final LunchEvent event;
+                synchronized (this) {
+                    event = subscriptions.contains(this) ? queue.poll() : null;
+                    if (event == null) {
+                        delivering = false;
+                        sender = null;
+                        return;
+                    }
+                    sender = Thread.currentThread();
+                    sendingSince = System.currentTimeMillis();
+                }
+                try {
+                    sink.accept(event);
+                } catch (RuntimeException e) {
+                    LOG.debug("Lunch event subscriber failed, unsubscribing", e);
+                    cancel();
+                } finally {
+                    synchronized (this) {
+                        sender = null;
+                        // Cleared here too, in case the watchdog interrupted a send that then completed.
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private synchronized void dropIfStalled(long now) {
+            if (sender != null && now - sendingSince > sendTimeoutMillis) {
+                queue.clear();
+                sender.interrupt();
+                drop();
+            }
+        }
+
+        private void drop() {
+            if (subscriptions.remove(this)) {
+                dropped.increment();
+                try {
+                    executor.execute(onDrop);
+                } catch (RejectedExecutionException e) {
+                    LOG.debug("Not closing dropped lunch event subscriber, shutting down");
+                }
+            }
+        }
+    }
+}
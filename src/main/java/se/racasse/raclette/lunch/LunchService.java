@@ -1,39 +1,56 @@
 package se.racasse.raclette.lunch;
 
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import se.racasse.raclette.AfterCommit;
 import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonRef;
 import se.racasse.raclette.person.PersonService;
-import se.racasse.raclette.place.Place;
 import se.racasse.raclette.place.PlaceService;
 import se.racasse.raclette.vote.Vote;
 import se.racasse.raclette.vote.VoteType;
 
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.toList;
 
 @Component
 public class LunchService {
 
+    private final static Logger LOG = LoggerFactory.getLogger(LunchService.class);
+
     private final LunchDao lunchDao;
     private final PersonService personService;
     private final PlaceService placeService;
+    private final IncrementalSuggestor incrementalSuggestor;
+    private final LunchEventBroadcaster events;
 
     private Optional<SuggestResult> latestSuggestion = Optional.empty();
+    // The leader last announced to lunch event subscribers; guarded by this.
+    private LocalDate leaderDate;
+    private int leaderPlaceId;
 
     @Autowired
-    LunchService(LunchDao lunchDao, PersonService personService, PlaceService placeService) {
+    LunchService(LunchDao lunchDao, PersonService personService, PlaceService placeService, IncrementalSuggestor incrementalSuggestor,
+                 LunchEventBroadcaster events) {
         this.lunchDao = lunchDao;
         this.personService = personService;
         this.placeService = placeService;
+        this.incrementalSuggestor = incrementalSuggestor;
+        this.events = events;
+        placeService.setChangeCallback(this::catalogChanged);
+        personService.setChangeCallback(this::catalogChanged);
     }
 
     public LocalDate getCurrentLunchTime() {
@@ -45,15 +62,19 @@ public class LunchService {
     }
 
     public boolean isLunchTimeParticipant(LocalDate date, String name) {
-        final Person person = personService.getPersonByName(name)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("User '%s' not found", name)));
-        return lunchDao.isParticipant(date, person.id);
+        return isLunchTimeParticipant(date, getPersonRef(name).id);
+    }
+
+    public boolean isLunchTimeParticipant(LocalDate date, int personId) {
+        return lunchDao.isParticipant(date, personId);
+    }
+
+    public Collection<Integer> getLunchTimeParticipantIds(LocalDate date) {
+        return lunchDao.getLunchParticipants(date);
     }
 
     public Collection<Person> getLunchTimeParticipants(LocalDate date) {
-        return lunchDao.getLunchParticipants(date).stream()
-                .map(personService::getPerson)
-                .collect(toList());
+        return personService.getPersons(lunchDao.getLunchParticipants(date));
     }
 
     public Multimap<Integer, Vote> getLunchTimeVotesByPlace(LocalDate date) {
@@ -62,39 +83,51 @@ public class LunchService {
     }
 
     public void addLunchTimeParticipant(LocalDate date, String name) {
-        final Person person = personService.getPersonByName(name)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("User '%s' not found", name)));
-        if (!lunchDao.isParticipant(date, person.id)) {
-            lunchDao.insertLunchParticipant(date, person.id);
+        addLunchTimeParticipant(date, getPersonRef(name).id);
+    }
+
+    public void addLunchTimeParticipant(LocalDate date, int personId) {
+        if (!lunchDao.isParticipant(date, personId)) {
+            lunchDao.insertLunchParticipant(date, personId);
+            incrementalSuggestor.participantAdded(date, personId);
+            publish(date, LunchEvent.joined(date, personId));
         }
     }
 
+    // Returns the persons that weren't participating already.
+    public Collection<Integer> addLunchTimeParticipants(LocalDate date, Collection<Integer> personIds) {
+        final Set<Integer> participants = new HashSet<>(lunchDao.getLunchParticipants(date));
+        final List<Integer> added = personIds.stream().filter(id -> !participants.contains(id)).distinct().collect(toList());
+        lunchDao.insertLunchParticipants(date, added);
+        incrementalSuggestor.participantsAdded(date, added);
+        publish(date, added.stream().map(id -> LunchEvent.joined(date, id)).collect(toList()));
+        return added;
+    }
+
     public void removeLunchTimeParticipant(LocalDate date, String name) {
-        final Person person = personService.getPersonByName(name)
+        removeLunchTimeParticipant(date, getPersonRef(name).id);
+    }
+
+    public void removeLunchTimeParticipant(LocalDate date, int personId) {
+        lunchDao.removeLunchParticipant(date, personId);
+        lunchDao.removeLunchVotes(date, personId);
+        incrementalSuggestor.participantRemoved(date, personId);
+        publish(date, LunchEvent.left(date, personId));
+    }
+
+    private PersonRef getPersonRef(String name) {
+        return personService.getPersonRef(name)
                 .orElseThrow(() -> new IllegalArgumentException(String.format("User '%s' not found", name)));
-        lunchDao.removeLunchParticipant(date, person.id);
-        lunchDao.removeLunchVotes(date, person.id);
     }
 
     public SuggestResult suggestLunchPlace(LocalDate date) {
-        final LunchContext lunchContext = new LunchContext();
-        lunchContext.places = placeService.getAllPlaces();
-        lunchContext.participants = personService.getParticipatingPersons(date);
-        lunchContext.latestLunches = getLatestLunches(lunchContext.places, date);
-        lunchContext.upVotes = getLunchVotesPerParticipant(date, VoteType.UP, lunchContext.participants);
-        lunchContext.downVotes = getLunchVotesPerParticipant(date, VoteType.DOWN, lunchContext.participants);
-        final LunchSuggestor lunchSuggestor = new LunchSuggestor(lunchContext);
-        final SuggestResult place = lunchSuggestor.suggest();
-        this.latestSuggestion = Optional.of(place);
-        return place;
+        return suggestLunchPlace(date, Integer.MAX_VALUE);
     }
 
-    private Multimap<Integer, Vote> getLunchVotesPerParticipant(LocalDate date, VoteType voteType, Collection<Person> participants) {
-        final Collection<Integer> participantIds = participants.stream().map(p -> p.id).collect(toList());
-        if (participantIds.isEmpty()) {
-            return ImmutableMultimap.of();
-        }
-        return Multimaps.index(lunchDao.getLunchVotesByPersons(date, voteType, participantIds), vote -> vote.placeId);
+    public SuggestResult suggestLunchPlace(LocalDate date, int limit) {
+        final SuggestResult place = incrementalSuggestor.suggest(date, limit);
+        this.latestSuggestion = Optional.of(place);
+        return place;
     }
 
     public Optional<SuggestResult> getLatestSuggestion() {
@@ -103,20 +136,100 @@ public class LunchService {
 
     public void setLunchPlace(LocalDate date, int placeId) {
         lunchDao.setLunch(date, placeId);
+        incrementalSuggestor.lunchDecided(date);
+        AfterCommit.run(() -> events.publish(LunchEvent.decided(date, placeId)));
     }
 
-    private Map<Integer, LocalDate> getLatestLunches(Collection<Place> places, LocalDate before) {
-        final Map<Integer, LocalDate> lunches = new HashMap<>();
-        places.forEach(place -> {
-            final Optional<LocalDate> latestLunch = lunchDao.getLatestLunchForPlace(place.id, before);
-            latestLunch.ifPresent(date -> {
-                lunches.put(place.id, date);
-            });
+    public void addLunchVote(int personId, LocalDate lunchTime, int placeId, VoteType type) {
+        lunchDao.insertLunchVote(personId, lunchTime, placeId, type);
+        incrementalSuggestor.lunchVoteAdded(lunchTime, personId, placeId, type);
+        publish(lunchTime, LunchEvent.voted(lunchTime, personId, placeId, type));
+    }
+
+    public void addLunchVotes(LocalDate lunchTime, Collection<Vote> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+        lunchDao.insertLunchVotes(lunchTime, votes);
+        AfterCommit.run(() -> votes.forEach(vote ->
+                incrementalSuggestor.lunchVoteAdded(lunchTime, vote.personId, vote.placeId, vote.type)));
+        publish(lunchTime, votes.stream()
+                .map(vote -> LunchEvent.voted(lunchTime, vote.personId, vote.placeId, vote.type))
+                .collect(toList()));
+    }
+
+    private void publish(LocalDate date, LunchEvent event) {
+        publish(date, Collections.singletonList(event));
+    }
+
+    // Events are only published once the change is committed, followed by the new
+    // suggestion leader if the change moved it.
+    private void publish(LocalDate date, List<LunchEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            changes.forEach(events::publish);
+            publishLeader(date);
         });
-        return lunches;
     }
 
-    public void addLunchVote(int personId, LocalDate lunchTime, int placeId, VoteType type) {
-        lunchDao.insertLunchVote(personId, lunchTime, placeId, type);
+    // Ranking is skipped when nobody listens, so the mutations cost the same as before.
+    private synchronized void publishLeader(LocalDate date) {
+        if (!events.hasSubscribers()) {
+            return;
+        }
+        rankLeader(date).ifPresent(placeId -> {
+            if (leaderChanged(date, placeId)) {
+                events.publish(LunchEvent.leader(date, placeId));
+            }
+        });
+    }
+
+    // Place votes and tags move the leader of the current lunch without a lunch event.
+    private void catalogChanged() {
+        if (!events.hasSubscribers()) {
+            return;
+        }
+        final LocalDate date = lunchDao.getLatestLunchTime();
+        if (date != null) {
+            publishLeader(date);
+        }
+    }
+
+    // New subscribers get the current leader right away; the one announced last may
+    // have gone stale while nobody was listening.
+    public synchronized LunchEventBroadcaster.Subscription subscribeToEvents(Consumer<LunchEvent> sink, Runnable onDrop) {
+        final LunchEventBroadcaster.Subscription subscription = events.subscribe(sink, onDrop);
+        final LocalDate date = lunchDao.getLatestLunchTime();
+        if (date != null) {
+            rankLeader(date).ifPresent(placeId -> {
+                final LunchEvent leader = LunchEvent.leader(date, placeId);
+                if (leaderChanged(date, placeId)) {
+                    events.publish(leader);
+                } else {
+                    subscription.offer(leader);
+                }
+            });
+        }
+        return subscription;
+    }
+
+    private Optional<Integer> rankLeader(LocalDate date) {
+        try {
+            return incrementalSuggestor.suggest(date, 1).top().map(score -> score.place.id);
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to rank places for lunch events on " + date, e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean leaderChanged(LocalDate date, int placeId) {
+        if (date.equals(leaderDate) && placeId == leaderPlaceId) {
+            return false;
+        }
+        leaderDate = date;
+        leaderPlaceId = placeId;
+        return true;
     }
 }
@@ -5,26 +5,62 @@ import se.racasse.raclette.place.Place;
 import se.racasse.raclette.place.PlaceScore;
 import se.racasse.raclette.place.PlaceScoringContext;
 
+import java.util.stream.Stream;
+
 class LunchSuggestor {
 
     private final LunchContext lunchContext;
+    private final ScoringPool scoringPool;
 
     LunchSuggestor(LunchContext lunchContext) {
+        this(lunchContext, null);
+    }
+
+    LunchSuggestor(LunchContext lunchContext, ScoringPool scoringPool) {
         this.lunchContext = lunchContext;
+        this.scoringPool = scoringPool;
     }
 
     SuggestResult suggest() {
-        return lunchContext.places.stream()
+        if (scoringPool != null && scoringPool.shouldParallelize(lunchContext.places.size())) {
+            return suggestParallel(scoringPool);
+        }
+        return suggest(lunchContext.places.stream());
+    }
+
+    SuggestResult suggest(int limit) {
+        if (scoringPool != null && scoringPool.shouldParallelize(lunchContext.places.size())) {
+            return scoringPool.invoke(() -> suggest(lunchContext.places.parallelStream(), limit));
+        }
+        return suggest(lunchContext.places.stream(), limit);
+    }
+
+    // Parallel streams run in the pool they are started from. The stream is ordered and
+    // sorted by a total order, so the result is identical to the sequential one.
+    SuggestResult suggestParallel(ScoringPool pool) {
+        return pool.invoke(() -> suggest(lunchContext.places.parallelStream()));
+    }
+
+    private SuggestResult suggest(Stream<Place> places) {
+        return places
                 .filter(place -> place.accepted(lunchContext.participants))
                 .map(this::scorePlace)
-                .sorted(this::compareScore)
+                .sorted(LunchSuggestor::compareScore)
                 .collect(SuggestResult.collector());
     }
 
-    private int compareScore(PlaceScore p1, PlaceScore p2) {
+    private SuggestResult suggest(Stream<Place> places, int limit) {
+        return places
+                .filter(place -> place.accepted(lunchContext.participants))
+                .map(this::scorePlace)
+                .collect(SuggestResult.topCollector(limit, LunchSuggestor::compareScore));
+    }
+
+    static int compareScore(PlaceScore p1, PlaceScore p2) {
         return ComparisonChain.start()
                 .compare(p2.score, p1.score)
                 .compare(p1.place.name, p2.place.name)
+                .compare(p1.place.id, p2.place.id)
                 .result();
     }
 
@@ -0,0 +1,46 @@
+package se.racasse.raclette.lunch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+// Scores catalogs of at least raclette.suggestion.parallel-threshold places in
+// parallel. The pool is only started once a catalog that large shows up.
+@Component
+class ScoringPool {
+
+    private final int parallelism;
+    private final int threshold;
+    private ForkJoinPool pool;
+
+    ScoringPool(@Value("${raclette.suggestion.parallelism:0}") int parallelism,
+                @Value("${raclette.suggestion.parallel-threshold:2000}") int threshold) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.threshold = threshold;
+    }
+
+    boolean shouldParallelize(int places) {
+        return places >= threshold;
+    }
+
+    <T> T invoke(Supplier<T> task) {
+        return pool().submit(task::get).join();
+    }
+
+    synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
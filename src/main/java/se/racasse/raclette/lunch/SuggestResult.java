@@ -4,8 +4,10 @@ import com.google.common.collect.ImmutableSet;
 import se.racasse.raclette.place.PlaceScore;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -16,6 +18,7 @@ import java.util.stream.Collector;
 public class SuggestResult {
 
     public List<PlaceScore> scores;
+    public int totalCount;
 
     public Optional<PlaceScore> top() {
         return scores.stream().findFirst();
@@ -25,6 +28,10 @@ public class SuggestResult {
         return new SuggestResultCollector();
     }
 
+    static Collector<PlaceScore, ?, SuggestResult> topCollector(int limit, Comparator<PlaceScore> comparator) {
+        return new TopSuggestResultCollector(limit, comparator);
+    }
+
     private static class SuggestResultCollector implements Collector<PlaceScore, SuggestResult, SuggestResult> {
 
         @Override
@@ -38,13 +45,17 @@ public class SuggestResult {
 
         @Override
         public BiConsumer<SuggestResult, PlaceScore> accumulator() {
-            return (suggestResult, placeScore) -> suggestResult.scores.add(placeScore);
+            return (suggestResult, placeScore) -> {
+                suggestResult.scores.add(placeScore);
+                suggestResult.totalCount++;
+            };
         }
 
         @Override
         public BinaryOperator<SuggestResult> combiner() {
             return (suggestResult, suggestResult2) -> {
                 suggestResult.scores.addAll(suggestResult2.scores);
+                suggestResult.totalCount += suggestResult2.totalCount;
                 return suggestResult;
             };
         }
@@ -60,4 +71,72 @@ public class SuggestResult {
         }
     }
 
+    // Keeps the best `limit` scores in a heap with the worst of them on top, so each
+    // element costs O(log limit) and only the survivors are sorted at the end.
+    private static class TopSuggestResultCollector implements Collector<PlaceScore, TopSuggestResultCollector.Heap, SuggestResult> {
+
+        private final int limit;
+        private final Comparator<PlaceScore> comparator;
+
+        TopSuggestResultCollector(int limit, Comparator<PlaceScore> comparator) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+            this.limit = limit;
+            this.comparator = comparator;
+        }
+
+        class Heap {
+            final PriorityQueue<PlaceScore> scores = new PriorityQueue<>(Math.min(limit, 64) + 1, comparator.reversed());
+            int totalCount;
+
+            void offer(PlaceScore placeScore) {
+                if (scores.size() < limit) {
+                    scores.add(placeScore);
+                } else if (comparator.compare(placeScore, scores.peek()) < 0) {
+                    scores.poll();
+                    scores.add(placeScore);
+                }
+            }
+        }
+
+        @Override
+        public Supplier<Heap> supplier() {
+            return Heap::new;
+        }
+
+        @Override
+        public BiConsumer<Heap, PlaceScore> accumulator() {
+            return (heap, placeScore) -> {
+                heap.offer(placeScore);
+                heap.totalCount++;
+            };
+        }
+
+        @Override
+        public BinaryOperator<Heap> combiner() {
+            return (heap, heap2) -> {
+                heap2.scores.forEach(heap::offer);
+                heap.totalCount += heap2.totalCount;
+                return heap;
+            };
+        }
+
+        @Override
+        public Function<Heap, SuggestResult> finisher() {
+            return heap -> {
+                final SuggestResult suggestResult = new SuggestResult();
+                suggestResult.scores = new ArrayList<>(heap.scores);
+                suggestResult.scores.sort(comparator);
+                suggestResult.totalCount = heap.totalCount;
+                return suggestResult;
+            };
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return ImmutableSet.of(Characteristics.UNORDERED);
+        }
+    }
+
 }
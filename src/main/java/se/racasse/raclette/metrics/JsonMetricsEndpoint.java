@@ -0,0 +1,45 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class JsonMetricsEndpoint extends AbstractEndpoint<List<Map<String, Object>>> {
+
+    private final MeterRegistry registry;
+
+    JsonMetricsEndpoint(MeterRegistry registry) {
+        super("meters", false);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<Map<String, Object>> invoke() {
+        final List<Meter> meters = new ArrayList<>(registry.getMeters());
+        meters.sort(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                .thenComparing(meter -> meter.getId().getTags().toString()));
+        final List<Map<String, Object>> result = new ArrayList<>();
+        meters.forEach(meter -> {
+            final Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", meter.getId().getName());
+            final Map<String, String> tags = new TreeMap<>();
+            for (Tag tag : meter.getId().getTags()) {
+                tags.put(tag.getKey(), tag.getValue());
+            }
+            entry.put("tags", tags);
+            final Map<String, Double> measurements = new LinkedHashMap<>();
+            meter.measure().forEach(m -> measurements.put(m.getStatistic().name().toLowerCase(), m.getValue()));
+            entry.put("measurements", measurements);
+            result.add(entry);
+        });
+        return result;
+    }
+}
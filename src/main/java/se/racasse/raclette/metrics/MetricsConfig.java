@@ -0,0 +1,101 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import se.racasse.raclette.DefaultActions;
+
+import javax.sql.DataSource;
+
+@Configuration
+class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor timingBeanPostProcessor(ObjectFactory<MeterRegistry> registry,
+                                                     @Value("${raclette.query-counter.repeat-threshold:3}") int repeatThreshold) {
+        return new TimingBeanPostProcessor(registry, repeatThreshold);
+    }
+
+    @Bean
+    MeterBinder poolMetrics(DataSource dataSource) {
+        final DataSource target = dataSource instanceof CountingDataSource
+                ? ((CountingDataSource) dataSource).getTargetDataSource()
+                : dataSource;
+        return registry -> {
+            if (target instanceof org.apache.tomcat.jdbc.pool.DataSource) {
+                new TomcatPoolMetrics((org.apache.tomcat.jdbc.pool.DataSource) target).bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    JsonMetricsEndpoint jsonMetricsEndpoint(MeterRegistry registry) {
+        return new JsonMetricsEndpoint(registry);
+    }
+
+    // Runs before the scheduling post processor so that @Scheduled jobs are invoked
+    // through the timing proxy.
+    static class TimingBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectFactory<MeterRegistry> registry;
+        private final int repeatThreshold;
+
+        TimingBeanPostProcessor(ObjectFactory<MeterRegistry> registry, int repeatThreshold) {
+            this.registry = registry;
+            this.repeatThreshold = repeatThreshold;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource && !(bean instanceof CountingDataSource)) {
+                return new CountingDataSource((DataSource) bean);
+            }
+            if (bean instanceof DefaultActions) {
+                return proxy(bean, new TimingInterceptor(registry,
+                        method -> AnnotationUtils.findAnnotation(method, Scheduled.class) != null ? "raclette.scheduled" : "raclette.actions",
+                        method -> Tags.of("method", method.getName())),
+                        new QueryCountingInterceptor(registry, repeatThreshold));
+            }
+            if (isDao(bean.getClass())) {
+                final String dao = bean.getClass().getSimpleName();
+                return proxy(bean, new TimingInterceptor(registry,
+                        method -> "raclette.dao",
+                        method -> Tags.of("dao", dao, "method", method.getName())));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+
+        private static boolean isDao(Class<?> type) {
+            return type.getName().startsWith("se.racasse.raclette.") && type.getSimpleName().endsWith("Dao");
+        }
+
+        private static Object proxy(Object bean, MethodInterceptor... interceptors) {
+            final ProxyFactory factory = new ProxyFactory(bean);
+            factory.setProxyTargetClass(true);
+            for (MethodInterceptor interceptor : interceptors) {
+                factory.addAdvice(interceptor);
+            }
+            return factory.getProxy(bean.getClass().getClassLoader());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package se.racasse.raclette.metrics;
+
+import java.util.function.Supplier;
+
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryStats measure(Runnable runnable) {
+        final QueryStats stats = new QueryStats();
+        measure(stats, () -> {
+            runnable.run();
+            return null;
+        });
+        return stats;
+    }
+
+    // Statements run in a nested measurement also count towards the enclosing one.
+    public static <T> T measure(QueryStats stats, Supplier<T> supplier) {
+        final QueryStats parent = enter(stats);
+        try {
+            return supplier.get();
+        } finally {
+            exit(stats, parent);
+        }
+    }
+
+    static QueryStats enter(QueryStats stats) {
+        final QueryStats parent = CURRENT.get();
+        CURRENT.set(stats);
+        return parent;
+    }
+
+    static void exit(QueryStats stats, QueryStats parent) {
+        CURRENT.set(parent);
+        if (parent != null) {
+            parent.addAll(stats);
+        }
+    }
+
+    static void record(String sql) {
+        final QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+    }
+}
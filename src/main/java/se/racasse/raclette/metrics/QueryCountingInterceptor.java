@@ -0,0 +1,46 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.util.Map;
+
+class QueryCountingInterceptor implements MethodInterceptor {
+    private final static Logger LOG = LoggerFactory.getLogger(QueryCountingInterceptor.class);
+
+    private final ObjectFactory<MeterRegistry> registry;
+    private final int repeatThreshold;
+
+    QueryCountingInterceptor(ObjectFactory<MeterRegistry> registry, int repeatThreshold) {
+        this.registry = registry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final String method = invocation.getMethod().getName();
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        final QueryStats stats = new QueryStats();
+        final QueryStats parent = QueryCounter.enter(stats);
+        try {
+            return invocation.proceed();
+        } finally {
+            QueryCounter.exit(stats, parent);
+            DistributionSummary.builder("raclette.actions.statements")
+                    .tag("method", method)
+                    .register(registry.getObject())
+                    .record(stats.total());
+            final Map<String, Integer> repeated = stats.repeated(repeatThreshold);
+            if (!repeated.isEmpty()) {
+                LOG.warn("{} ran {} statements, repeated shapes: {}", method, stats.total(), repeated);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package se.racasse.raclette.metrics;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+public class QueryStats {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Multiset<String> shapes = ConcurrentHashMultiset.create();
+
+    void record(String sql) {
+        shapes.add(shape(sql));
+    }
+
+    void addAll(QueryStats other) {
+        shapes.addAll(other.shapes);
+    }
+
+    public int total() {
+        return shapes.size();
+    }
+
+    public int count(String shape) {
+        return shapes.count(shape);
+    }
+
+    public Set<String> shapes() {
+        return shapes.elementSet();
+    }
+
+    public Map<String, Integer> repeated(int threshold) {
+        final Map<String, Integer> result = new TreeMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getCount() > threshold)
+                .forEach(entry -> result.put(entry.getElement(), entry.getCount()));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return total() + " statements " + shapes;
+    }
+
+    // Statements that only differ in literals or in the length of an expanded
+    // "in (:ids)" list have the same shape.
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
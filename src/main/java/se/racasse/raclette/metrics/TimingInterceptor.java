@@ -0,0 +1,63 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class TimingInterceptor implements MethodInterceptor {
+
+    private final ObjectFactory<MeterRegistry> registry;
+    private final Function<Method, String> nameFn;
+    private final Function<Method, Tags> tagsFn;
+    // Method -> exception tag -> timer, so the registry is only consulted once per timer.
+    private final ConcurrentMap<Method, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    TimingInterceptor(ObjectFactory<MeterRegistry> registry, Function<Method, String> nameFn, Function<Method, Tags> tagsFn) {
+        this.registry = registry;
+        this.nameFn = nameFn;
+        this.tagsFn = tagsFn;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        final long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(method, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        ConcurrentMap<String, Timer> byException = timers.get(method);
+        if (byException == null) {
+            byException = timers.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        final Timer timer = byException.get(exception);
+        if (timer != null) {
+            return timer;
+        }
+        return byException.computeIfAbsent(exception, e -> Timer.builder(nameFn.apply(method))
+                .tags(tagsFn.apply(method))
+                .tag("exception", e)
+                .publishPercentileHistogram()
+                .register(registry.getObject()));
+    }
+}
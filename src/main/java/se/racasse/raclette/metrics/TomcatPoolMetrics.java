@@ -0,0 +1,33 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.DataSource;
+
+import java.util.function.ToIntFunction;
+
+class TomcatPoolMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    TomcatPoolMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "raclette.db.pool.active", ConnectionPool::getActive);
+        gauge(registry, "raclette.db.pool.idle", ConnectionPool::getIdle);
+        gauge(registry, "raclette.db.pool.total", ConnectionPool::getSize);
+        gauge(registry, "raclette.db.pool.pending", ConnectionPool::getWaitCount);
+    }
+
+    // Most DataSource accessors create the pool on first use, so read it only once it exists.
+    private void gauge(MeterRegistry registry, String name, ToIntFunction<ConnectionPool> fn) {
+        Gauge.builder(name, dataSource, ds -> ds.getPool() != null ? fn.applyAsInt(ds.getPool()) : 0)
+                .tag("pool", dataSource.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,172 @@
+package se.racasse.raclette.person;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+@Component
+@Profile("!memory")
+class JdbcPersonDao implements PersonDao {
+
+    private static final RowMapper<Person> PERSON_ROW_MAPPER = (resultSet, rowNum) -> {
+        final Person person = new Person();
+        person.id = resultSet.getInt("id");
+        person.name = resultSet.getString("name");
+        return person;
+    };
+
+    private static final RowMapper<PersonRef> PERSON_REF_ROW_MAPPER = (resultSet, rowNum) -> {
+        final PersonRef person = new PersonRef();
+        person.id = resultSet.getInt("id");
+        person.name = resultSet.getString("name");
+        return person;
+    };
+
+    private static final RowMapper<Vote> VOTE_ROW_MAPPER = (resultSet, rowNum) -> {
+        final Vote vote = new Vote();
+        vote.personId = resultSet.getInt("person_id");
+        vote.personName = resultSet.getString("person_name");
+        vote.placeId = resultSet.getInt("place_id");
+        vote.placeName = resultSet.getString("place_name");
+        vote.type = VoteType.fromInitial(resultSet.getString("type"));
+        vote.count = resultSet.getInt("vote_count");
+        return vote;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    JdbcPersonDao(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Person getPerson(int personId) {
+        return jdbcTemplate.queryForObject("select * from person where id = :id",
+                new MapSqlParameterSource("id", personId),
+                PERSON_ROW_MAPPER);
+    }
+
+    @Override
+    public Optional<Person> getPersonByName(String name) {
+        return jdbcTemplate.query("select * from person where name = :name",
+                new MapSqlParameterSource("name", name),
+                PERSON_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public Optional<PersonRef> getPersonRefByName(String name) {
+        return jdbcTemplate.query("select id, name from person where name = :name",
+                new MapSqlParameterSource("name", name),
+                PERSON_REF_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public Collection<PersonRef> getPersonRefsByName(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query("select id, name from person where name in (:names)",
+                new MapSqlParameterSource("names", names),
+                PERSON_REF_ROW_MAPPER);
+    }
+
+    @Override
+    public Collection<Person> getPersons(Collection<Integer> personIds) {
+        if (personIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query("select * from person where id in (:personIds)",
+                new MapSqlParameterSource("personIds", personIds),
+                PERSON_ROW_MAPPER);
+    }
+
+    @Override
+    public Collection<Person> getParticipatingPersons(LocalDate lunchTimeDate) {
+        return jdbcTemplate.query("select * from person where id in (select person_id from lunch_participant where lunch_time_id = :lunchTimeDate)",
+                new MapSqlParameterSource("lunchTimeDate", lunchTimeDate),
+                PERSON_ROW_MAPPER);
+    }
+
+    @Override
+    public int insertPerson(String name) {
+        final GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update("insert into person (name) values (:name)",
+                new MapSqlParameterSource("name", name), keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+
+    @Override
+    public Collection<Tag> getTags(int personId, TagType tagType) {
+        return jdbcTemplate.query("select tag_id from person_tag where person_id = :personId and type = :tagType",
+                new MapSqlParameterSource().addValue("personId", personId).addValue("tagType", tagType.toString().substring(0, 1)),
+                (resultSet, rowNum) -> new Tag(resultSet.getString("tag_id")));
+    }
+
+    @Override
+    public Table<Integer, TagType, Collection<Tag>> getTags(Collection<Integer> personIds) {
+        final Table<Integer, TagType, Collection<Tag>> tags = HashBasedTable.create();
+        if (personIds.isEmpty()) {
+            return tags;
+        }
+        jdbcTemplate.query("select person_id, tag_id, type from person_tag where person_id in (:personIds)",
+                new MapSqlParameterSource("personIds", personIds),
+                resultSet -> {
+                    final int personId = resultSet.getInt("person_id");
+                    final TagType type = TagType.fromInitial(resultSet.getString("type"));
+                    Collection<Tag> personTags = tags.get(personId, type);
+                    if (personTags == null) {
+                        personTags = new TagSet();
+                        tags.put(personId, type, personTags);
+                    }
+                    personTags.add(new Tag(resultSet.getString("tag_id")));
+                });
+        return tags;
+    }
+
+    @Override
+    public void insertTag(int personId, String tag, TagType type) {
+        jdbcTemplate.update("insert into person_tag (person_id, tag_id, type) values (:personId, :tagId, :type)",
+                new MapSqlParameterSource()
+                        .addValue("personId", personId)
+                        .addValue("tagId", tag)
+                        .addValue("type", type.toString().substring(0, 1)));
+    }
+
+    @Override
+    public void deleteTag(int personId, String tag, TagType type) {
+        jdbcTemplate.update("delete from person_tag where person_id = :personId and tag_id = :tagId and type = :type",
+                new MapSqlParameterSource()
+                        .addValue("personId", personId)
+                        .addValue("tagId", tag)
+                        .addValue("type", type.toString().substring(0, 1)));
+    }
+
+    @Override
+    public Collection<Vote> getPlaceVotes(Collection<Integer> personIds) {
+        if (personIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query("select v.*, pe.name as person_name, pl.name as place_name from place_vote_count v " +
+                        "left join person pe on pe.id = v.person_id " +
+                        "left join place pl on pl.id = v.place_id " +
+                        "where v.person_id in (:personIds)",
+                new MapSqlParameterSource("personIds", personIds),
+                VOTE_ROW_MAPPER);
+    }
+
+}
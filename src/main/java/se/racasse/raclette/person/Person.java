@@ -1,32 +1,24 @@
 package se.racasse.raclette.person;
 
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
 import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
 import se.racasse.raclette.vote.Vote;
 
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
 
-public class Person {
+public class Person extends PersonRef {
 
-    public int id;
-    public String name;
-    public Collection<Tag> requiredTags = new HashSet<>();
-    public Collection<Tag> preferredTags = new HashSet<>();
+    public Collection<Tag> requiredTags = new TagSet();
+    public Collection<Tag> preferredTags = new TagSet();
     public Collection<Vote> placeVotes = new HashSet<>();
 
     public boolean accepts(Collection<Tag> placeTags) {
-        return requiredTags.stream().allMatch(placeTags::contains);
+        return TagSet.of(placeTags).containsAll(TagSet.of(requiredTags));
     }
 
     public int scoreTags(Collection<Tag> placeTags) {
-        return tagIntersection(preferredTags, placeTags).size();
-    }
-
-    private Set<Tag> tagIntersection(Collection<Tag> tags, Collection<Tag> placeTags) {
-        return Sets.intersection(ImmutableSet.copyOf(tags), ImmutableSet.copyOf(placeTags));
+        return TagSet.of(preferredTags).intersectionSize(TagSet.of(placeTags));
     }
 
 }
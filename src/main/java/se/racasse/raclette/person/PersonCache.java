@@ -0,0 +1,97 @@
+package se.racasse.raclette.person;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+class PersonCache {
+
+    private final Cache<Integer, Person> byId;
+    private final Cache<String, Integer> idByName;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped by every invalidation; guarded by this.
+    private long generation;
+
+    PersonCache(@Value("${raclette.person-cache.size:1000}") int maximumSize) {
+        this.idByName = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.byId = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .<Integer, Person>removalListener(notification -> {
+                    if (notification.wasEvicted()) {
+                        evictions.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    Optional<Person> getById(int personId) {
+        return count(Optional.ofNullable(byId.getIfPresent(personId)));
+    }
+
+    Optional<Person> getByName(String name) {
+        final Integer personId = idByName.getIfPresent(normalize(name));
+        if (personId == null) {
+            return count(Optional.empty());
+        }
+        return getById(personId);
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    // Persons loaded before an invalidation, i.e. with a generation read before it, may
+    // be stale and are not cached.
+    synchronized void put(Person person, long loadedAt) {
+        if (loadedAt != generation) {
+            return;
+        }
+        byId.put(person.id, person);
+        idByName.put(normalize(person.name), person.id);
+    }
+
+    synchronized void invalidate(int personId) {
+        generation++;
+        final Person person = byId.getIfPresent(personId);
+        byId.invalidate(personId);
+        if (person != null) {
+            idByName.invalidate(normalize(person.name));
+        }
+    }
+
+    synchronized void invalidate(String name) {
+        generation++;
+        final Integer personId = idByName.getIfPresent(normalize(name));
+        idByName.invalidate(normalize(name));
+        if (personId != null) {
+            byId.invalidate(personId);
+        }
+    }
+
+    PersonCacheStats stats() {
+        final PersonCacheStats stats = new PersonCacheStats();
+        stats.hits = hits.get();
+        stats.misses = misses.get();
+        stats.evictions = evictions.get();
+        stats.size = byId.size();
+        return stats;
+    }
+
+    private Optional<Person> count(Optional<Person> person) {
+        (person.isPresent() ? hits : misses).incrementAndGet();
+        return person;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
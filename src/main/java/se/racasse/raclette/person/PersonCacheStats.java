@@ -0,0 +1,8 @@
+package se.racasse.raclette.person;
+
+public class PersonCacheStats {
+    public long hits;
+    public long misses;
+    public long evictions;
+    public long size;
+}
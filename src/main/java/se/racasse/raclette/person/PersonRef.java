@@ -0,0 +1,6 @@
+package se.racasse.raclette.person;
+
+public class PersonRef {
+    public int id;
+    public String name;
+}
@@ -1,11 +1,20 @@
 package se.racasse.raclette.person;
 
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Table;
 import org.springframework.stereotype.Component;
+import se.racasse.raclette.AfterCommit;
 import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
 import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static java.util.stream.Collectors.toSet;
@@ -14,49 +23,140 @@ import static java.util.stream.Collectors.toSet;
 public class PersonService {
 
     private final PersonDao dao;
+    private final PersonCache cache;
+    private Runnable changeCallback = () -> {
+    };
 
-    PersonService(PersonDao dao) {
+    PersonService(PersonDao dao, PersonCache cache) {
         this.dao = dao;
+        this.cache = cache;
     }
 
     public Person getPerson(int personId) {
-        final Person person = dao.getPerson(personId);
-        person.preferredTags = dao.getPreferredTags(person.id);
-        person.requiredTags = dao.getRequiredTags(person.id);
-        person.placeVotes = dao.getPlaceVotes(personId);
-        return person;
+        return cache.getById(personId).orElseGet(() -> {
+            final long generation = cache.generation();
+            final Person person = dao.getPerson(personId);
+            populatePersons(Collections.singleton(person), generation);
+            return person;
+        });
     }
 
     public Optional<Person> getPersonByName(String name) {
-        return dao.getPersonByName(name).flatMap(person -> {
-            person.preferredTags = dao.getPreferredTags(person.id);
-            person.requiredTags = dao.getRequiredTags(person.id);
-            person.placeVotes = dao.getPlaceVotes(person.id);
-            return Optional.of(person);
+        final Optional<Person> cached = cache.getByName(name);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        final long generation = cache.generation();
+        final Optional<Person> person = dao.getPersonByName(name);
+        person.ifPresent(p -> populatePersons(Collections.singleton(p), generation));
+        return person;
+    }
+
+    public Optional<PersonRef> getPersonRef(String name) {
+        final Optional<Person> cached = cache.getByName(name);
+        if (cached.isPresent()) {
+            return Optional.of(cached.get());
+        }
+        return dao.getPersonRefByName(name);
+    }
+
+    public Collection<PersonRef> getPersonRefs(Collection<String> names) {
+        return dao.getPersonRefsByName(names);
+    }
+
+    public Collection<Person> getPersons(Collection<Integer> personIds) {
+        final List<Person> persons = new ArrayList<>();
+        final List<Integer> missingIds = new ArrayList<>();
+        final long generation = cache.generation();
+        personIds.forEach(personId -> {
+            final Optional<Person> cached = cache.getById(personId);
+            if (cached.isPresent()) {
+                persons.add(cached.get());
+            } else {
+                missingIds.add(personId);
+            }
         });
+        final Collection<Person> loaded = dao.getPersons(missingIds);
+        populatePersons(loaded, generation);
+        persons.addAll(loaded);
+        return persons;
     }
 
     public Collection<Person> getParticipatingPersons(LocalDate date) {
-        return dao.getParticipatingPersons(date).stream().map(person -> {
-            person.preferredTags = dao.getPreferredTags(person.id);
-            person.requiredTags = dao.getRequiredTags(person.id);
-            person.placeVotes = dao.getPlaceVotes(person.id);
-            return person;
-        }).collect(toSet());
+        final List<Person> persons = new ArrayList<>();
+        final List<Person> missing = new ArrayList<>();
+        final long generation = cache.generation();
+        dao.getParticipatingPersons(date).forEach(person -> {
+            final Optional<Person> cached = cache.getById(person.id);
+            if (cached.isPresent()) {
+                persons.add(cached.get());
+            } else {
+                missing.add(person);
+            }
+        });
+        populatePersons(missing, generation);
+        persons.addAll(missing);
+        return persons;
+    }
+
+    // Run after every committed change to the tags of a person.
+    public void setChangeCallback(Runnable changeCallback) {
+        this.changeCallback = changeCallback;
+    }
+
+    private void changed() {
+        AfterCommit.run(() -> changeCallback.run());
+    }
+
+    public PersonCacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    public void placeVotesChanged(int personId) {
+        invalidate(personId);
+    }
+
+    // Invalidated again after commit, since a concurrent reader may have cached the
+    // person as it was before the transaction in the meantime.
+    private void invalidate(int personId) {
+        cache.invalidate(personId);
+        AfterCommit.run(() -> cache.invalidate(personId));
+    }
+
+    private void populatePersons(Collection<Person> persons, long generation) {
+        final Collection<Integer> personIds = persons.stream().map(p -> p.id).collect(toSet());
+        final Table<Integer, TagType, Collection<Tag>> tags = dao.getTags(personIds);
+        final Multimap<Integer, Vote> votes = Multimaps.index(dao.getPlaceVotes(personIds), v -> v.personId);
+        persons.forEach(person -> {
+            person.preferredTags = tagsOrEmpty(tags.get(person.id, TagType.PREFER));
+            person.requiredTags = tagsOrEmpty(tags.get(person.id, TagType.REQUIRE));
+            person.placeVotes = new ArrayList<>(votes.get(person.id));
+            cache.put(person, generation);
+        });
+    }
+
+    private static Collection<Tag> tagsOrEmpty(Collection<Tag> tags) {
+        return tags != null ? tags : new TagSet();
     }
 
     public Person addPerson(String name) {
         final int personId = dao.insertPerson(name);
+        cache.invalidate(name);
+        cache.invalidate(personId);
         return getPerson(personId);
     }
 
     public void addTag(int personId, String tag, TagType type) {
         if (!dao.getTags(personId, type).contains(new Tag(tag))) {
             dao.insertTag(personId, tag, type);
+            invalidate(personId);
+            changed();
         }
     }
 
     public void removeTag(int personId, String tag, TagType type) {
         dao.deleteTag(personId, tag, type);
+        invalidate(personId);
+        changed();
     }
 }
@@ -5,7 +5,7 @@ import se.racasse.raclette.ActionResponse;
 import java.util.Optional;
 
 public class PersonTagResponse extends ActionResponse {
-    public Optional<Person> person = Optional.empty();
+    public Optional<PersonRef> person = Optional.empty();
     public PersonTagResponse(boolean success) {
         super(success);
     }
@@ -0,0 +1,132 @@
+package se.racasse.raclette.place;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+@Component
+@Profile("!memory")
+class JdbcPlaceDao implements PlaceDao {
+
+    private static final RowMapper<Place> PLACE_ROW_MAPPER = (resultSet, rowNum) -> {
+        final Place place = new Place();
+        place.id = resultSet.getInt("id");
+        place.name = resultSet.getString("name");
+        return place;
+    };
+    private static final RowMapper<Vote> VOTE_ROW_MAPPER = (resultSet, rowNum) -> {
+        final Vote vote = new Vote();
+        vote.placeId = resultSet.getInt("place_id");
+        vote.placeName = resultSet.getString("place_name");
+        vote.personId = resultSet.getInt("person_id");
+        vote.personName = resultSet.getString("person_name");
+        vote.type = VoteType.fromInitial(resultSet.getString("type"));
+        vote.count = resultSet.getInt("vote_count");
+        return vote;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    JdbcPlaceDao(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Collection<Place> getAllPlaces() {
+        return jdbcTemplate.query("select * from place", (SqlParameterSource) null, PLACE_ROW_MAPPER);
+    }
+
+    @Override
+    public Collection<Tag> getPlaceTags(int placeId) {
+        return jdbcTemplate.query("select * from place_tag where place_id = :placeId",
+                new MapSqlParameterSource("placeId", placeId),
+                (resultSet, rowNum) -> new Tag(resultSet.getString("tag_id")));
+    }
+
+    @Override
+    public Multimap<Integer, Tag> getPlaceTags(Collection<Integer> placeIds) {
+        if (placeIds.isEmpty()) {
+            return ImmutableMultimap.of();
+        }
+        final Multimap<Integer, Tag> tags = Multimaps.newSetMultimap(new HashMap<>(), HashSet::new);
+        jdbcTemplate.query("select place_id, tag_id from place_tag where place_id in (:placeIds)",
+                new MapSqlParameterSource("placeIds", placeIds),
+                resultSet -> {
+                    tags.put(resultSet.getInt("place_id"), new Tag(resultSet.getString("tag_id")));
+                });
+        return tags;
+    }
+
+    @Override
+    public Collection<Vote> getPlaceVotes(Collection<Integer> placeIds) {
+        if (placeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query("select v.*, pe.name as person_name, pl.name as place_name from place_vote_count v " +
+                        "left join person pe on pe.id = v.person_id " +
+                        "left join place pl on pl.id = v.place_id " +
+                        "where v.place_id in (:placeIds)",
+                new MapSqlParameterSource("placeIds", placeIds),
+                VOTE_ROW_MAPPER);
+    }
+
+    @Override
+    public int insertPlace(Place place) {
+        final GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update("insert into place (name) values (:name)",
+                new MapSqlParameterSource().addValue("name", place.name), keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+
+    @Override
+    public void insertPlaceTag(int placeId, String tag) {
+        jdbcTemplate.update("insert into place_tag (place_id, tag_id) values (:placeId, :tagId)",
+                new MapSqlParameterSource().addValue("placeId", placeId).addValue("tagId", tag));
+    }
+
+    @Override
+    public void deletePlaceTag(int placeId, String tag) {
+        jdbcTemplate.update("delete from place_tag where place_id = :placeId and tag_id = :tagId",
+                new MapSqlParameterSource().addValue("placeId", placeId).addValue("tagId", tag));
+    }
+
+    @Override
+    public void insertVote(int personId, int placeId, VoteType type) {
+        jdbcTemplate.update("insert into place_vote_count (place_id, person_id, type, vote_count) values (:placeId, :personId, :type, 1) " +
+                        "on duplicate key update vote_count = vote_count + 1",
+                new MapSqlParameterSource()
+                        .addValue("placeId", placeId)
+                        .addValue("personId", personId)
+                        .addValue("type", type.name().substring(0, 1)));
+    }
+
+    @Override
+    public void insertVotes(Collection<Vote> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into place_vote_count (place_id, person_id, type, vote_count) values (:placeId, :personId, :type, :count) " +
+                        "on duplicate key update vote_count = vote_count + :count",
+                votes.stream().map(vote -> new MapSqlParameterSource()
+                        .addValue("placeId", vote.placeId)
+                        .addValue("personId", vote.personId)
+                        .addValue("type", vote.type.name().substring(0, 1))
+                        .addValue("count", vote.count)).toArray(SqlParameterSource[]::new));
+    }
+
+}
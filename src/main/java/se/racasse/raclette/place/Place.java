@@ -1,65 +1,113 @@
 package se.racasse.raclette.place;
 
+import com.google.common.collect.ImmutableCollection;
 import se.racasse.raclette.person.Person;
 import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
 import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteCounter;
+import se.racasse.raclette.vote.VoteType;
 
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
 
-public class Place {
+public class Place extends PlaceRef {
 
-    public int id;
-    public String name;
-    public Collection<Tag> tags = new HashSet<>();
+    public Collection<Tag> tags = new TagSet();
     public Collection<Vote> upVotes = new HashSet<>();
     public Collection<Vote> downVotes = new HashSet<>();
 
+    private IndexedVotes indexedUpVotes;
+    private IndexedVotes indexedDownVotes;
+
     public boolean accepted(Collection<Person> persons) {
-        return persons.stream().allMatch(p -> p.accepts(tags));
+        final TagSet placeTags = TagSet.of(tags);
+        for (Person person : persons) {
+            if (!person.accepts(placeTags)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public float score(PlaceScoringContext scoringContext) {
-        return scoreTags(scoringContext.persons)
-                + scoreLunchUpVotes(scoringContext.lunchUpVotes)
-                + scoreLunchDownVotes(scoringContext.lunchDownVotes)
-                + scoreUpVotes(scoringContext.persons)
-                + scoreDownVotes(scoringContext.persons)
-                + timeSinceLastLunchBoost(scoringContext.latestLunch);
+        return score(scoreTags(scoringContext.persons),
+                scoringContext.lunchUpVotes,
+                scoringContext.lunchDownVotes,
+                countVotes(VoteType.UP, scoringContext.persons),
+                countVotes(VoteType.DOWN, scoringContext.persons),
+                scoringContext.latestLunch);
+    }
+
+    public static float score(int tagScore, int lunchUpVotes, int lunchDownVotes, int upVotes, int downVotes, LocalDate latestLunch) {
+        return tagScore
+                + scoreLunchUpVotes(lunchUpVotes)
+                + scoreLunchDownVotes(lunchDownVotes)
+                + scoreUpVotes(upVotes)
+                + scoreDownVotes(downVotes)
+                + timeSinceLastLunchBoost(latestLunch);
     }
 
     private int scoreTags(Collection<Person> persons) {
-        return persons.stream().mapToInt(person -> person.scoreTags(tags)).sum();
+        final TagSet placeTags = TagSet.of(tags);
+        int score = 0;
+        for (Person person : persons) {
+            score += person.scoreTags(placeTags);
+        }
+        return score;
+    }
+
+    private static int scoreLunchUpVotes(int votes) {
+        return 3 * votes;
+    }
+
+    private static int scoreLunchDownVotes(int votes) {
+        return -3 * votes;
     }
 
-    private int scoreLunchUpVotes(Collection<Vote> votes) {
-        return 3 * votes.size();
+    private static float scoreUpVotes(int votes) {
+        return 1.5f * votes;
     }
 
-    private int scoreLunchDownVotes(Collection<Vote> votes) {
-        return -3 * votes.size();
+    private static float scoreDownVotes(int votes) {
+        return -1.5f * votes;
     }
 
-    private float scoreUpVotes(Collection<Person> persons) {
-        final Collection<Vote> votes = filterVotesOnPersons(upVotes, persons);
-        return 1.5f * votes.size();
+    public int countVotes(VoteType type, int personId) {
+        return voteCounter(type).get(personId);
     }
 
-    private float scoreDownVotes(Collection<Person> persons) {
-        final Collection<Vote> votes = filterVotesOnPersons(downVotes, persons);
-        return -1.5f * votes.size();
+    private int countVotes(VoteType type, Collection<Person> persons) {
+        final VoteCounter counter = voteCounter(type);
+        int count = 0;
+        for (Person person : persons) {
+            count += counter.get(person.id);
+        }
+        return count;
     }
 
-    private Collection<Vote> filterVotesOnPersons(Collection<Vote> votes, Collection<Person> persons) {
-        final Set<Integer> personIds = persons.stream().map(p -> p.id).collect(Collectors.toSet());
-        return votes.stream().filter(v -> personIds.contains(v.personId)).collect(Collectors.toList());
+    // Vote collections from the catalog are immutable, so their counters are built once.
+    // Mutable collections may change under us and are counted on every call.
+    private VoteCounter voteCounter(VoteType type) {
+        final Collection<Vote> votes = type == VoteType.UP ? upVotes : downVotes;
+        final IndexedVotes indexed = type == VoteType.UP ? indexedUpVotes : indexedDownVotes;
+        if (indexed != null && indexed.votes == votes) {
+            return indexed.counter;
+        }
+        final VoteCounter counter = VoteCounter.countBy(votes, v -> v.personId);
+        if (votes instanceof ImmutableCollection) {
+            if (type == VoteType.UP) {
+                indexedUpVotes = new IndexedVotes(votes, counter);
+            } else {
+                indexedDownVotes = new IndexedVotes(votes, counter);
+            }
+        }
+        return counter;
     }
 
-    private float timeSinceLastLunchBoost(LocalDate latestLunch) {
+    private static float timeSinceLastLunchBoost(LocalDate latestLunch) {
         int daysBetween = 30;
         if (latestLunch != null) {
             daysBetween = Period.between(latestLunch, LocalDate.now()).getDays();
@@ -67,4 +115,14 @@ public class Place {
         return (float) (1 + 5 * Math.log(daysBetween));
     }
 
+    private static class IndexedVotes {
+        final Collection<Vote> votes;
+        final VoteCounter counter;
+
+        IndexedVotes(Collection<Vote> votes, VoteCounter counter) {
+            this.votes = votes;
+            this.counter = counter;
+        }
+    }
+
 }
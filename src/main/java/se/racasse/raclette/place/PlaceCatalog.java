@@ -0,0 +1,139 @@
+package se.racasse.raclette.place;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toSet;
+
+@Component
+class PlaceCatalog {
+
+    private final PlaceDao dao;
+
+    private volatile Snapshot snapshot;
+    private long version;
+
+    PlaceCatalog(PlaceDao dao) {
+        this.dao = dao;
+    }
+
+    Snapshot snapshot() {
+        final Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+
+    synchronized long reload() {
+        final Collection<Place> places = dao.getAllPlaces();
+        final Collection<Integer> placeIds = places.stream().map(p -> p.id).collect(toSet());
+        final Multimap<Integer, Tag> tags = dao.getPlaceTags(placeIds);
+        final Multimap<Integer, Vote> votes = Multimaps.index(dao.getPlaceVotes(placeIds), v -> v.placeId);
+        final Map<Integer, Place> byId = new LinkedHashMap<>();
+        places.forEach(place -> byId.put(place.id, copy(place, tags.get(place.id), votes.get(place.id))));
+        return publish(byId);
+    }
+
+    synchronized void putPlace(Place place) {
+        final Map<Integer, Place> byId = new LinkedHashMap<>(snapshot().byId);
+        byId.put(place.id, copy(place, place.tags, ImmutableList.of()));
+        publish(byId);
+    }
+
+    synchronized void updateTags(int placeId, Function<Collection<Tag>, Collection<Tag>> update) {
+        updatePlace(placeId, place -> copy(place, update.apply(place.tags), allVotes(place)));
+    }
+
+    synchronized void replaceVotes(int placeId, Collection<Vote> votes) {
+        updatePlace(placeId, place -> copy(place, place.tags, votes));
+    }
+
+    synchronized void replaceVotes(Map<Integer, Collection<Vote>> votesByPlace) {
+        final Map<Integer, Place> byId = new LinkedHashMap<>(snapshot().byId);
+        for (Map.Entry<Integer, Collection<Vote>> entry : votesByPlace.entrySet()) {
+            final Place place = byId.get(entry.getKey());
+            if (place == null) {
+                reload();
+                return;
+            }
+            byId.put(place.id, copy(place, place.tags, entry.getValue()));
+        }
+        publish(byId);
+    }
+
+    private void updatePlace(int placeId, Function<Place, Place> update) {
+        final Place place = snapshot().byId.get(placeId);
+        if (place == null) {
+            reload();
+            return;
+        }
+        final Map<Integer, Place> byId = new LinkedHashMap<>(snapshot.byId);
+        byId.put(placeId, update.apply(place));
+        publish(byId);
+    }
+
+    private long publish(Map<Integer, Place> byId) {
+        snapshot = new Snapshot(++version, byId);
+        return version;
+    }
+
+    private static Collection<Vote> allVotes(Place place) {
+        return ImmutableList.<Vote>builder().addAll(place.upVotes).addAll(place.downVotes).build();
+    }
+
+    private static Place copy(Place source, Collection<Tag> tags, Collection<Vote> votes) {
+        final Place place = new Place();
+        place.id = source.id;
+        place.name = source.name;
+        place.tags = TagSet.immutableCopyOf(tags);
+        place.upVotes = votes.stream().filter(v -> v.type == VoteType.UP).collect(ImmutableList.toImmutableList());
+        place.downVotes = votes.stream().filter(v -> v.type == VoteType.DOWN).collect(ImmutableList.toImmutableList());
+        return place;
+    }
+
+    static class Snapshot {
+        final long version;
+        final ImmutableMap<Integer, Place> byId;
+        final ImmutableMap<String, Place> byName;
+
+        private Snapshot(long version, Map<Integer, Place> byId) {
+            this.version = version;
+            this.byId = ImmutableMap.copyOf(byId);
+            final Map<String, Place> byName = new LinkedHashMap<>();
+            byId.values().forEach(place -> byName.putIfAbsent(normalize(place.name), place));
+            this.byName = ImmutableMap.copyOf(byName);
+        }
+
+        Collection<Place> places() {
+            return byId.values();
+        }
+
+        Optional<Place> getByName(String name) {
+            return Optional.ofNullable(byName.get(normalize(name)));
+        }
+
+        private static String normalize(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package se.racasse.raclette.place;
+
+public class PlaceRef {
+    public int id;
+    public String name;
+}
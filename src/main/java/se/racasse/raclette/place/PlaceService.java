@@ -1,55 +1,115 @@
 package se.racasse.raclette.place;
 
+import com.google.common.collect.ImmutableSet;
 import org.springframework.stereotype.Component;
+import se.racasse.raclette.AfterCommit;
+import se.racasse.raclette.person.PersonService;
 import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.vote.Vote;
 import se.racasse.raclette.vote.VoteType;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
 
 @Component
 public class PlaceService {
 
     private final PlaceDao dao;
+    private final PlaceCatalog catalog;
+    private final PersonService personService;
+    private Runnable changeCallback = () -> {
+    };
 
-    PlaceService(PlaceDao dao) {
+    PlaceService(PlaceDao dao, PlaceCatalog catalog, PersonService personService) {
         this.dao = dao;
+        this.catalog = catalog;
+        this.personService = personService;
+    }
+
+    // Run after every committed change to the places, their tags or their votes.
+    public void setChangeCallback(Runnable changeCallback) {
+        this.changeCallback = changeCallback;
+    }
+
+    private void changed() {
+        AfterCommit.run(() -> changeCallback.run());
     }
 
     public Collection<Place> getAllPlaces() {
-        return dao.getAllPlaces().stream()
-                .map(this::populatePlace)
-                .collect(Collectors.toSet());
+        return catalog.snapshot().places();
     }
 
     public Optional<Place> getPlaceByName(String name) {
-        return dao.getPlaceByName(name)
-                .flatMap(place -> Optional.of(populatePlace(place)));
+        return catalog.snapshot().getByName(name);
+    }
+
+    public Optional<PlaceRef> getPlaceRef(String name) {
+        return catalog.snapshot().getByName(name).map(PlaceRef.class::cast);
+    }
+
+    public long getCatalogVersion() {
+        return catalog.snapshot().version;
     }
 
-    private Place populatePlace(Place place) {
-        place.tags = dao.getPlaceTags(place.id);
-        place.upVotes = dao.getPlaceUpVotes(place.id);
-        place.downVotes = dao.getPlaceDownVotes(place.id);
-        return place;
+    public long reloadCatalog() {
+        final long version = catalog.reload();
+        changed();
+        return version;
     }
 
     public int addPlace(Place place) {
-        return dao.insertPlace(place);
+        final int placeId = dao.insertPlace(place);
+        final Place added = new Place();
+        added.id = placeId;
+        added.name = place.name;
+        catalog.putPlace(added);
+        changed();
+        return placeId;
     }
 
     public void addPlaceTag(int placeId, String tag) {
-        if (!dao.getPlaceTags(placeId).contains(new Tag(tag))) {
+        final Place place = catalog.snapshot().byId.get(placeId);
+        final Collection<Tag> tags = place != null ? place.tags : dao.getPlaceTags(placeId);
+        if (!tags.contains(new Tag(tag))) {
             dao.insertPlaceTag(placeId, tag);
+            catalog.updateTags(placeId, current -> ImmutableSet.<Tag>builder().addAll(current).add(new Tag(tag)).build());
+            changed();
         }
     }
 
     public void removePlaceTag(int placeId, String tag) {
         dao.deletePlaceTag(placeId, tag);
+        catalog.updateTags(placeId, current -> current.stream().filter(t -> !t.name.equals(tag)).collect(toSet()));
+        changed();
     }
 
     public void addVote(int personId, int placeId, VoteType type) {
         dao.insertVote(personId, placeId, type);
+        catalog.replaceVotes(placeId, dao.getPlaceVotes(Collections.singleton(placeId)));
+        personService.placeVotesChanged(personId);
+        changed();
+    }
+
+    public void addVotes(Collection<Vote> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+        dao.insertVotes(votes);
+        AfterCommit.run(() -> {
+            final Set<Integer> placeIds = votes.stream().map(v -> v.placeId).collect(toSet());
+            final Map<Integer, Collection<Vote>> votesByPlace = new HashMap<>();
+            placeIds.forEach(placeId -> votesByPlace.put(placeId, new ArrayList<>()));
+            dao.getPlaceVotes(placeIds).forEach(vote -> votesByPlace.get(vote.placeId).add(vote));
+            catalog.replaceVotes(votesByPlace);
+            votes.stream().map(v -> v.personId).distinct().forEach(personService::placeVotesChanged);
+        });
+        changed();
     }
 }
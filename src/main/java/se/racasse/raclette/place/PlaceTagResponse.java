@@ -5,7 +5,7 @@ import se.racasse.raclette.ActionResponse;
 import java.util.Optional;
 
 public class PlaceTagResponse extends ActionResponse {
-    public Optional<Place> place = Optional.empty();
+    public Optional<PlaceRef> place = Optional.empty();
     public PlaceTagResponse(boolean success) {
         super(success);
     }
@@ -0,0 +1,43 @@
+package se.racasse.raclette.rest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.racasse.raclette.lunch.LunchEventBroadcaster;
+import se.racasse.raclette.lunch.LunchService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Pushes lunch changes to office screens and bots as server-sent events, so they
+// don't have to poll the lunch status. Streams end after raclette.lunch-events.timeout
+// ms, which EventSource clients handle by reconnecting.
+@RestController
+class LunchEventStream {
+
+    private final LunchService lunchService;
+    private final long timeoutMillis;
+
+    LunchEventStream(LunchService lunchService,
+                     @Value("${raclette.lunch-events.timeout:1800000}") long timeoutMillis) {
+        this.lunchService = lunchService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @GetMapping(path = "lunches/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter lunchEvents() {
+        final SseEmitter emitter = new SseEmitter(timeoutMillis);
+        final LunchEventBroadcaster.Subscription subscription = lunchService.subscribeToEvents(event -> {
+            try {
+                emitter.send(SseEmitter.event().name(event.type.name().toLowerCase()).data(event));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        return emitter;
+    }
+}
@@ -1,19 +1,27 @@
 package se.racasse.raclette.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import se.racasse.raclette.Actions;
 import se.racasse.raclette.lunch.LunchService;
 import se.racasse.raclette.lunch.SuggestResult;
 import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonCacheStats;
 import se.racasse.raclette.person.PersonService;
 import se.racasse.raclette.place.Place;
 import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.vote.VoteEntry;
+import se.racasse.raclette.vote.VoteEntryResult;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -25,17 +33,25 @@ class RestApi {
     private final PlaceService placeService;
     private final LunchService lunchService;
     private final PersonService personService;
+    private final Actions actions;
+    private final RestExecutor executor;
+    private final VersionedJson placesJson;
 
     @Autowired
-    RestApi(PlaceService placeService, LunchService lunchService, PersonService personService) {
+    RestApi(PlaceService placeService, LunchService lunchService, PersonService personService, Actions actions,
+            RestExecutor executor, ObjectMapper objectMapper) {
         this.placeService = placeService;
         this.lunchService = lunchService;
         this.personService = personService;
+        this.actions = actions;
+        this.executor = executor;
+        this.placesJson = new VersionedJson(objectMapper, placeService::getCatalogVersion,
+                () -> ImmutableList.copyOf(placeService.getAllPlaces()));
     }
 
     @GetMapping("places")
-    public List<Place> getAllPlaces() {
-        return ImmutableList.copyOf(placeService.getAllPlaces());
+    public ResponseEntity<byte[]> getAllPlaces() throws JsonProcessingException {
+        return placesJson.response();
     }
 
     @PostMapping("places")
@@ -43,6 +59,16 @@ class RestApi {
         return placeService.addPlace(place);
     }
 
+    @PostMapping("admin/places/reload")
+    public long reloadPlaces() {
+        return placeService.reloadCatalog();
+    }
+
+    @GetMapping("admin/persons/cache")
+    public PersonCacheStats getPersonCacheStats() {
+        return personService.getCacheStats();
+    }
+
     @PostMapping("persons")
     public Person addPerson(@RequestBody String name) {
         return personService.addPerson(name);
@@ -59,10 +85,20 @@ class RestApi {
         lunchService.addLunchTimeParticipant(lunchTimeDate, name);
     }
 
+    // Place and lunch votes in one request; the results are in the order of the votes.
+    @PostMapping("votes")
+    public DeferredResult<ResponseEntity<List<VoteEntryResult>>> addVotes(@RequestBody List<VoteEntry> votes) {
+        return executor.submit(() -> actions.addVotes(votes).results);
+    }
+
     @PutMapping("lunches/{date}")
-    public int setLunch(@PathVariable String date) {
+    public DeferredResult<ResponseEntity<Integer>> setLunch(@PathVariable String date) {
         final LocalDate lunchDate = LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE);
-        final SuggestResult result = lunchService.suggestLunchPlace(lunchDate);
+        return executor.submit(() -> decideLunch(lunchDate));
+    }
+
+    private int decideLunch(LocalDate lunchDate) {
+        final SuggestResult result = lunchService.suggestLunchPlace(lunchDate, 1);
         result.top().ifPresent(p -> lunchService.setLunchPlace(lunchDate, p.place.id));
         if (result.top().isPresent()) {
             return result.top().get().place.id;
@@ -0,0 +1,118 @@
+package se.racasse.raclette.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Runs the expensive REST operations off the Tomcat request threads. At most
+// raclette.rest.workers of them run and raclette.rest.queue-capacity wait; anything
+// beyond that gets a 503 so a slow database shows up as quick failures instead of
+// a saturated connector.
+//
+// A 503 always means that nothing was applied. Each operation runs in a transaction
+// that times out, and is rolled back, once the request has taken raclette.rest.timeout
+// ms, and a request still queued by then is never run. The request itself is given
+// GRACE_MILLIS more, since transaction timeouts are whole seconds.
+@Component
+class RestExecutor {
+
+    private static final long GRACE_MILLIS = 2000;
+
+    private final ThreadPoolExecutor executor;
+    private final PlatformTransactionManager transactionManager;
+    private final long timeoutMillis;
+    private final Counter rejected;
+    private final Counter timeouts;
+
+    RestExecutor(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                 @Value("${raclette.rest.workers:8}") int workers,
+                 @Value("${raclette.rest.queue-capacity:50}") int capacity,
+                 @Value("${raclette.rest.timeout:5000}") long timeoutMillis) {
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new CustomizableThreadFactory("rest-"));
+        this.transactionManager = transactionManager;
+        this.timeoutMillis = timeoutMillis;
+        this.rejected = meterRegistry.counter("raclette.rest.rejected");
+        this.timeouts = meterRegistry.counter("raclette.rest.timeouts");
+        meterRegistry.gauge("raclette.rest.queue.size", executor, e -> e.getQueue().size());
+    }
+
+    <T> DeferredResult<ResponseEntity<T>> submit(Supplier<T> task) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        final DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMillis + GRACE_MILLIS);
+        // Claimed either by the worker starting the task or by the timeout abandoning it.
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final Runnable runnable = () -> {
+            if (claimed.compareAndSet(false, true)) {
+                run(task, deadline, result);
+            }
+        };
+        try {
+            executor.execute(runnable);
+            result.onTimeout(() -> {
+                timeouts.increment();
+                if (claimed.compareAndSet(false, true)) {
+                    // Never started, so it gives its place in the queue back right away.
+                    executor.remove(runnable);
+                    result.setResult(unavailable());
+                } else {
+                    // Still running past its transaction timeout; whether it commits is unknown.
+                    result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.setResult(unavailable());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private <T> void run(Supplier<T> task, long deadline, DeferredResult<ResponseEntity<T>> result) {
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            timeouts.increment();
+            result.setResult(unavailable());
+            return;
+        }
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout((int) Math.max(1, remaining / 1000));
+        try {
+            result.setResult(ResponseEntity.ok(transaction.execute(status -> task.get())));
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            timeouts.increment();
+            result.setResult(unavailable());
+        } catch (Throwable e) {
+            result.setErrorResult(e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    private static <T> ResponseEntity<T> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
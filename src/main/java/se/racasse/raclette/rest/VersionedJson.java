@@ -0,0 +1,67 @@
+package se.racasse.raclette.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// The JSON of a versioned resource, serialized once per version. Versions restart
+// with the application, so the ETag also carries an id of this run.
+class VersionedJson {
+
+    private static final String RUN_ID = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final ObjectMapper objectMapper;
+    private final LongSupplier version;
+    private final Supplier<Object> value;
+
+    private volatile Entry entry;
+
+    VersionedJson(ObjectMapper objectMapper, LongSupplier version, Supplier<Object> value) {
+        this.objectMapper = objectMapper;
+        this.version = version;
+        this.value = value;
+    }
+
+    // Spring answers a matching If-None-Match with 304 and drops the body.
+    ResponseEntity<byte[]> response() throws JsonProcessingException {
+        final Entry current = current();
+        return ResponseEntity.ok()
+                .eTag(current.etag)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(current.json);
+    }
+
+    private Entry current() throws JsonProcessingException {
+        while (true) {
+            final long before = version.getAsLong();
+            final Entry cached = entry;
+            if (cached != null && cached.version == before) {
+                return cached;
+            }
+            final byte[] json = objectMapper.writeValueAsBytes(value.get());
+            // Only cache what is known to belong to the version; otherwise try again.
+            if (version.getAsLong() == before) {
+                final Entry serialized = new Entry(before, json);
+                entry = serialized;
+                return serialized;
+            }
+        }
+    }
+
+    private static class Entry {
+        final long version;
+        final String etag;
+        final byte[] json;
+
+        Entry(long version, byte[] json) {
+            this.version = version;
+            this.etag = "\"" + RUN_ID + "-" + version + "\"";
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package se.racasse.raclette.slack;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Runs inbound commands off the websocket listener thread. Commands with the same
+// key, i.e. from the same user, run one at a time in the order they arrived, and
+// no more than raclette.slack.command-queue-depth commands wait or run at once.
+@Component
+@Profile("slack")
+class SlackCommandExecutor {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SlackCommandExecutor.class);
+
+    private final ExecutorService executor;
+    private final int queueDepth;
+    private final Counter rejected;
+
+    // Key -> commands waiting behind the one that is running; guarded by this.
+    private final Map<String, Deque<Runnable>> queues = new HashMap<>();
+    private int pending;
+
+    SlackCommandExecutor(MeterRegistry meterRegistry,
+                         @Value("${raclette.slack.command-workers:4}") int workers,
+                         @Value("${raclette.slack.command-queue-depth:50}") int queueDepth,
+                         @Value("${raclette.slack.command-virtual-threads:false}") boolean virtualThreads) {
+        this.executor = virtualThreads ? virtualThreadExecutor(workers) : newPool(workers);
+        this.queueDepth = queueDepth;
+        this.rejected = meterRegistry.counter("raclette.slack.commands.rejected");
+        meterRegistry.gauge("raclette.slack.commands.pending", this, SlackCommandExecutor::pending);
+    }
+
+    // Returns false, without running the command, when too many commands are pending.
+    boolean submit(String key, Runnable command) {
+        synchronized (this) {
+            if (pending >= queueDepth) {
+                rejected.increment();
+                return false;
+            }
+            pending++;
+            final Deque<Runnable> queue = queues.get(key);
+            if (queue != null) {
+                queue.add(command);
+                return true;
+            }
+            queues.put(key, new ArrayDeque<>());
+        }
+        return execute(key, command);
+    }
+
+    synchronized int pending() {
+        return pending;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private boolean execute(String key, Runnable command) {
+        try {
+            executor.execute(() -> run(key, command));
+            return true;
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                final Deque<Runnable> queue = queues.remove(key);
+                pending -= 1 + queue.size();
+            }
+            return false;
+        }
+    }
+
+    // The next command of the same key is resubmitted rather than run in a loop,
+    // so one busy user can't hold on to a worker. Errors still release the key.
+    private void run(String key, Runnable command) {
+        try {
+            command.run();
+        } catch (RuntimeException e) {
+            LOG.error("Slack command failed", e);
+        } finally {
+            final Runnable next;
+            synchronized (this) {
+                pending--;
+                next = queues.get(key).poll();
+                if (next == null) {
+                    queues.remove(key);
+                }
+            }
+            if (next != null) {
+                execute(key, next);
+            }
+        }
+    }
+
+    private static ExecutorService newPool(int workers) {
+        return Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("slack-command-"));
+    }
+
+    // Virtual threads need Java 21; on older runtimes we fall back to the pool.
+    private static ExecutorService virtualThreadExecutor(int workers) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.warn("Virtual threads are not supported by this runtime, using {} slack command workers", workers);
+            return newPool(workers);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import se.racasse.raclette.Actions;
 import se.racasse.raclette.lunch.SuggestResult;
 import se.racasse.raclette.vote.AddVoteResponse;
 import se.racasse.raclette.lunch.AddLunchParticipantResponse;
+import se.racasse.raclette.lunch.AddLunchParticipantsResponse;
 import se.racasse.raclette.lunch.CreateLunchTimeResponse;
 import se.racasse.raclette.lunch.GetLunchStatusResponse;
 import se.racasse.raclette.lunch.LunchPlaceDecisionResponse;
@@ -22,6 +23,7 @@ import se.racasse.raclette.lunch.RemoveLunchParticipantResponse;
 import se.racasse.raclette.person.AddPersonResponse;
 import se.racasse.raclette.person.GetPersonResponse;
 import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonRef;
 import se.racasse.raclette.person.PersonTagResponse;
 import se.racasse.raclette.place.AddPlaceResponse;
 import se.racasse.raclette.place.GetAllPlacesResponse;
@@ -45,14 +47,22 @@ import static java.util.stream.Collectors.toList;
 @Profile("slack")
 public class SlackCommandHandler {
 
+    // Bursts of joins, like the automatic participants added at 10:00, are announced in one message.
+    private static final SlackSender.Digest JOINED = new SlackSender.Digest(names -> names.size() == 1
+            ? String.format("%s is a member of today's lunch gang", names.get(0))
+            : String.format("%d people joined today's lunch gang: %s", names.size(), Joiner.on(", ").join(names)));
+    private static final SlackSender.Digest LINES = new SlackSender.Digest(lines -> Joiner.on('\n').join(lines));
+
     private final SlackSession session;
     private final Actions actions;
+    private final SlackSender sender;
 
     private SlackChannel lunchChannel;
 
-    public SlackCommandHandler(SlackSession session, Actions actions) {
+    public SlackCommandHandler(SlackSession session, Actions actions, SlackSender sender) {
         this.session = session;
         this.actions = actions;
+        this.sender = sender;
     }
 
     @PostConstruct
@@ -62,16 +72,12 @@ public class SlackCommandHandler {
         actions.setAutomaticParticipantProvider(new Actions.AutomaticParticipantProvider() {
             @Override
             public Collection<String> getParticipantsToBeAdded() {
-                return session.getUsers()
-                        .stream()
-                        .filter(u -> u.getPresence().name().equals("ACTIVE"))
-                        .map(SlackUser::getUserName)
-                        .collect(toList());
+                return activeUserNames();
             }
 
             @Override
-            public void participantAdded(Person participant) {
-                sendMessage(lunchChannel, String.format("%s is a member of today's lunch gang", participant.name));
+            public void participantsAdded(Collection<PersonRef> participants) {
+                sender.send(lunchChannel, JOINED, names(participants));
             }
         });
 
@@ -191,12 +197,12 @@ public class SlackCommandHandler {
         msg.add("Votes");
         if (p.upVotes.size() > 0) {
             msg.add(voteTypeToEmoji(VoteType.UP) + " " + p.upVotes.stream()
-                    .map(v -> v.personName)
+                    .map(SlackCommandHandler::voterName)
                     .collect(toList()));
         }
         if (p.downVotes.size() > 0) {
             msg.add(voteTypeToEmoji(VoteType.DOWN) + " " + p.downVotes.stream()
-                    .map(v -> v.personName)
+                    .map(SlackCommandHandler::voterName)
                     .collect(toList()));
         }
         sendMultilineMessage(event.getChannel(), msg.build());
@@ -230,8 +236,8 @@ public class SlackCommandHandler {
             msg.add("Votes");
             placeVotesPerPlace.keySet().forEach(placeName -> {
                 final Collection<Vote> votes = placeVotesPerPlace.get(placeName);
-                final long upvotes = votes.stream().filter(v -> v.type == VoteType.UP).count();
-                final long downvotes = votes.stream().filter(v -> v.type == VoteType.DOWN).count();
+                final int upvotes = votes.stream().filter(v -> v.type == VoteType.UP).mapToInt(v -> v.count).sum();
+                final int downvotes = votes.stream().filter(v -> v.type == VoteType.DOWN).mapToInt(v -> v.count).sum();
                 String s = "• " + placeName + ": ";
                 if (upvotes > 0) {
                     s += String.format("%d :thumbsup: ", upvotes);
@@ -391,7 +397,7 @@ public class SlackCommandHandler {
     private void addParticipant(SlackChannel channel, String name) {
         final AddLunchParticipantResponse response = actions.addLunchParticipant(name);
         if (response.successful()) {
-            sendMessage(channel, String.format("%s is a member of today's lunch gang", name));
+            sender.send(channel, JOINED, name);
         } else {
             sendMessage(channel, response.errorMessage);
         }
@@ -463,6 +469,10 @@ public class SlackCommandHandler {
         throw new IllegalStateException();
     }
 
+    private static String voterName(Vote vote) {
+        return vote.count > 1 ? String.format("%s (%d)", vote.personName, vote.count) : vote.personName;
+    }
+
     private void handleAddCommand(SlackMessagePosted event, List<String> params) {
         switch (params.get(0).toLowerCase()) {
             case "place":
@@ -501,18 +511,29 @@ public class SlackCommandHandler {
     }
 
     private void handleTestCommand(SlackMessagePosted event, List<String> params) {
-        session.getUsers().forEach(u -> {
-            String s = u.getUserName() + ": " + u.getPresence().name();
-            sendMessage(event.getChannel(), s);
-        });
+        sender.send(event.getChannel(), LINES, session.getUsers().stream()
+                .map(u -> u.getUserName() + ": " + u.getPresence().name())
+                .collect(toList()));
     }
 
     private void addParticipants() {
-        session.getUsers().forEach(u -> {
-            if (u.getPresence().name().equals("ACTIVE")) {
-                addParticipant(lunchChannel, u.getUserName());
-            }
-        });
+        final AddLunchParticipantsResponse response = actions.addLunchParticipants(activeUserNames());
+        sender.send(lunchChannel, JOINED, names(response.participants));
+        if (!response.successful()) {
+            sendMessage(lunchChannel, response.errorMessage);
+        }
+    }
+
+    private static List<String> names(Collection<PersonRef> persons) {
+        return persons.stream().map(person -> person.name).collect(toList());
+    }
+
+    private Collection<String> activeUserNames() {
+        return session.getUsers()
+                .stream()
+                .filter(u -> u.getPresence().name().equals("ACTIVE"))
+                .map(SlackUser::getUserName)
+                .collect(toList());
     }
 
     private void createLunchTimeForToday() {
@@ -529,10 +550,10 @@ public class SlackCommandHandler {
     }
 
     private void sendMessage(SlackChannel channel, String msg) {
-        session.sendMessage(channel, msg);
+        sender.send(channel, msg);
     }
 
     private void sendMultilineMessage(SlackChannel channel, Iterable<String> msg) {
-        session.sendMessage(channel, Joiner.on('\n').join(msg));
+        sendMessage(channel, Joiner.on('\n').join(msg));
     }
 }
@@ -32,13 +32,18 @@ public class SlackMessageHandler implements SlackMessagePostedListener {
 
     private final SlackSession session;
     private final SlackCommandHandler commandHandler;
+    private final SlackSender sender;
+    private final SlackCommandExecutor executor;
 
     private SlackChannel lunchChannel;
 
     @Autowired
-    public SlackMessageHandler(SlackSession session, SlackCommandHandler commandHandler) {
+    public SlackMessageHandler(SlackSession session, SlackCommandHandler commandHandler, SlackSender sender,
+                               SlackCommandExecutor executor) {
         this.session = session;
         this.commandHandler = commandHandler;
+        this.sender = sender;
+        this.executor = executor;
     }
 
     @PostConstruct
@@ -53,20 +58,26 @@ public class SlackMessageHandler implements SlackMessagePostedListener {
             return;
         }
         if (isMessageForMe(event)) {
-            try {
-                final List<String> command = getCommand(event.getMessageContent());
-                if (command.size() > 0) {
-                    final String cmd = command.get(0).toLowerCase();
-                    final ImmutableList<String> params = ImmutableList.copyOf(Iterables.skip(command, 1));
-                    commandHandler.handleCommand(event, cmd, params);
+            final List<String> command = getCommand(event.getMessageContent());
+            if (command.size() > 0) {
+                final String cmd = command.get(0).toLowerCase();
+                final ImmutableList<String> params = ImmutableList.copyOf(Iterables.skip(command, 1));
+                if (!executor.submit(event.getSender().getId(), () -> handleCommand(event, cmd, params))) {
+                    sendMessage(event.getChannel(), "I'm busy, try again in a moment");
                 }
-            } catch (Exception e) {
-                LOG.error("Failed to handle slack event for ", e);
-                sendMessage(event.getChannel(), e.getMessage());
             }
         }
     }
 
+    private void handleCommand(SlackMessagePosted event, String cmd, List<String> params) {
+        try {
+            commandHandler.handleCommand(event, cmd, params);
+        } catch (Exception e) {
+            LOG.error("Failed to handle slack event for ", e);
+            sendMessage(event.getChannel(), e.getMessage());
+        }
+    }
+
     private List<String> getCommand(String message) {
         final String tag = "<@" + me().getId() + ">";
         String stripped = StringUtils.delete(message, tag + ":");
@@ -93,11 +104,11 @@ public class SlackMessageHandler implements SlackMessagePostedListener {
     }
 
     private void sendMessage(SlackChannel channel, String msg) {
-        session.sendMessage(channel, msg);
+        sender.send(channel, msg);
     }
 
     private void sendMultilineMessage(SlackChannel channel, Iterable<String> msg) {
-        session.sendMessage(channel, Joiner.on('\n').join(msg));
+        sendMessage(channel, Joiner.on('\n').join(msg));
     }
 
     @Configuration
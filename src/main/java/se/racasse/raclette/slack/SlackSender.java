@@ -0,0 +1,229 @@
+package se.racasse.raclette.slack;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Outbound Slack messages are queued and posted by a single sender thread, so a
+// slow Slack API never holds up command handling. Each channel gets at most one
+// message per raclette.slack.min-interval ms, which keeps us under Slack's rate
+// limit, and messages of the same digest that pile up meanwhile are merged, at most
+// raclette.slack.digest-size to a message, so every queued item counts towards the
+// raclette.slack.queue-capacity messages in one way or another.
+@Component
+@Profile("slack")
+class SlackSender {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SlackSender.class);
+
+    private final SlackSession session;
+    private final long minIntervalMillis;
+    private final int capacity;
+    private final int digestSize;
+    private final long drainTimeoutMillis;
+    private final Timer sendTimer;
+    private final Counter failures;
+    private final Counter dropped;
+
+    private final Object lock = new Object();
+    // Channel id -> outbox, in the order the channels are served.
+    private final Map<String, Outbox> outboxes = new LinkedHashMap<>();
+    private int queued;
+    private boolean stopping;
+    private Thread thread;
+
+    SlackSender(SlackSession session, MeterRegistry meterRegistry,
+                @Value("${raclette.slack.min-interval:1000}") long minIntervalMillis,
+                @Value("${raclette.slack.queue-capacity:1000}") int capacity,
+                @Value("${raclette.slack.digest-size:50}") int digestSize,
+                @Value("${raclette.slack.drain-timeout:10000}") long drainTimeoutMillis) {
+        this.session = session;
+        this.minIntervalMillis = minIntervalMillis;
+        this.capacity = capacity;
+        this.digestSize = digestSize;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.sendTimer = Timer.builder("raclette.slack.send").publishPercentileHistogram().register(meterRegistry);
+        this.failures = meterRegistry.counter("raclette.slack.send.failures");
+        this.dropped = meterRegistry.counter("raclette.slack.send.dropped");
+        meterRegistry.gauge("raclette.slack.queue.size", this, SlackSender::queueSize);
+    }
+
+    @PostConstruct
+    void start() {
+        thread = new Thread(this::run, "slack-sender");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Posts whatever is queued, still rate limited, before the session disconnects.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        synchronized (lock) {
+            stopping = true;
+            lock.notifyAll();
+        }
+        thread.join(drainTimeoutMillis);
+        if (thread.isAlive()) {
+            thread.interrupt();
+            LOG.warn("Gave up on {} queued slack messages", queueSize());
+        }
+    }
+
+    void send(SlackChannel channel, String msg) {
+        enqueue(channel, null, Collections.singletonList(msg));
+    }
+
+    void send(SlackChannel channel, Digest digest, String item) {
+        enqueue(channel, digest, Collections.singletonList(item));
+    }
+
+    // Queued under one lock, so a burst is merged before the sender can post its first item alone.
+    void send(SlackChannel channel, Digest digest, Collection<String> items) {
+        enqueue(channel, digest, items);
+    }
+
+    int queueSize() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    private void enqueue(SlackChannel channel, Digest digest, Collection<String> items) {
+        synchronized (lock) {
+            final Outbox outbox = outboxes.computeIfAbsent(channel.getId(), id -> new Outbox(channel));
+            for (String item : items) {
+                final Message last = outbox.messages.peekLast();
+                if (digest != null && last != null && last.digest == digest && last.items.size() < digestSize) {
+                    last.items.add(item);
+                    continue;
+                }
+                if (queued >= capacity || stopping) {
+                    dropped.increment();
+                    LOG.warn("Dropping slack message to {}: {}", channel.getName(), item);
+                    continue;
+                }
+                outbox.messages.add(new Message(digest, item));
+                queued++;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final SlackChannel channel;
+                final Message message;
+                synchronized (lock) {
+                    Outbox ready;
+                    while ((ready = nextReady()) == null) {
+                        if (stopping && queued == 0) {
+                            return;
+                        }
+                        final long next = nextSendAt();
+                        if (next == Long.MAX_VALUE) {
+                            lock.wait();
+                        } else {
+                            lock.wait(Math.max(next - System.currentTimeMillis(), 1));
+                        }
+                    }
+                    channel = ready.channel;
+                    message = ready.messages.poll();
+                    ready.nextSendAt = System.currentTimeMillis() + minIntervalMillis;
+                    queued--;
+                    // Served last next time, so a busy channel doesn't starve the others.
+                    outboxes.remove(channel.getId());
+                    outboxes.put(channel.getId(), ready);
+                }
+                post(channel, message.text());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Outbox nextReady() {
+        final long now = System.currentTimeMillis();
+        for (Iterator<Outbox> it = outboxes.values().iterator(); it.hasNext(); ) {
+            final Outbox outbox = it.next();
+            if (outbox.messages.isEmpty() && outbox.nextSendAt <= now) {
+                it.remove();
+            } else if (!outbox.messages.isEmpty() && outbox.nextSendAt <= now) {
+                return outbox;
+            }
+        }
+        return null;
+    }
+
+    private long nextSendAt() {
+        long next = Long.MAX_VALUE;
+        for (Outbox outbox : outboxes.values()) {
+            if (!outbox.messages.isEmpty()) {
+                next = Math.min(next, outbox.nextSendAt);
+            }
+        }
+        return next;
+    }
+
+    private void post(SlackChannel channel, String msg) {
+        try {
+            sendTimer.record(() -> session.sendMessage(channel, msg));
+        } catch (RuntimeException e) {
+            failures.increment();
+            LOG.error("Failed to send slack message to " + channel.getName(), e);
+        }
+    }
+
+    // Formats the items of messages that were merged while waiting in the queue.
+    static class Digest {
+        private final Function<List<String>, String> format;
+
+        Digest(Function<List<String>, String> format) {
+            this.format = format;
+        }
+    }
+
+    private static class Outbox {
+        final SlackChannel channel;
+        final Deque<Message> messages = new ArrayDeque<>();
+        long nextSendAt;
+
+        Outbox(SlackChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static class Message {
+        final Digest digest;
+        final List<String> items = new ArrayList<>();
+
+        Message(Digest digest, String item) {
+            this.digest = digest;
+            this.items.add(item);
+        }
+
+        String text() {
+            return digest != null ? digest.format.apply(items) : items.get(0);
+        }
+    }
+}
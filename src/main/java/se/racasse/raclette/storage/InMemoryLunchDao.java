@@ -0,0 +1,129 @@
+package se.racasse.raclette.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.lunch.LunchDao;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+@Profile("memory")
+class InMemoryLunchDao implements LunchDao {
+
+    private final MemoryStore store;
+
+    InMemoryLunchDao(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void insertLunchTime(LocalDate date) {
+        store.write(StoreEvent.lunchTime(date));
+    }
+
+    @Override
+    public boolean isParticipant(LocalDate date, int personId) {
+        return store.participants.getOrDefault(date, Collections.emptySet()).contains(personId);
+    }
+
+    @Override
+    public void insertLunchParticipant(LocalDate date, int personId) {
+        store.write(StoreEvent.participant(StoreEvent.Kind.PARTICIPANT, date, personId));
+    }
+
+    @Override
+    public void insertLunchParticipants(LocalDate date, Collection<Integer> personIds) {
+        for (Integer personId : personIds) {
+            if (!isParticipant(date, personId)) {
+                insertLunchParticipant(date, personId);
+            }
+        }
+    }
+
+    @Override
+    public void removeLunchParticipant(LocalDate date, int personId) {
+        store.write(StoreEvent.participant(StoreEvent.Kind.PARTICIPANT_REMOVED, date, personId));
+    }
+
+    @Override
+    public void setLunch(LocalDate date, int placeId) {
+        store.write(StoreEvent.lunch(date, placeId));
+    }
+
+    @Override
+    public LocalDate getLatestLunchTime() {
+        return store.lunchTimes.isEmpty() ? null : store.lunchTimes.last();
+    }
+
+    @Override
+    public Map<Integer, LocalDate> getLatestLunchPerPlace(LocalDate before) {
+        final Map<Integer, LocalDate> lunches = new HashMap<>();
+        store.lunches.forEach((date, placeId) -> {
+            if (date.isBefore(before)) {
+                lunches.merge(placeId, date, (a, b) -> a.isAfter(b) ? a : b);
+            }
+        });
+        return lunches;
+    }
+
+    @Override
+    public Collection<Integer> getLunchParticipants(LocalDate date) {
+        return new ArrayList<>(store.participants.getOrDefault(date, Collections.emptySet()));
+    }
+
+    @Override
+    public void insertLunchVote(int personId, LocalDate lunchTime, int placeId, VoteType type) {
+        store.write(StoreEvent.lunchVote(lunchTime, personId, placeId, type));
+    }
+
+    @Override
+    public void insertLunchVotes(LocalDate lunchTime, Collection<Vote> votes) {
+        votes.forEach(vote -> insertLunchVote(vote.personId, lunchTime, vote.placeId, vote.type));
+    }
+
+    @Override
+    public Collection<Vote> getParticipantLunchVotes(LocalDate lunchTime) {
+        final Set<Integer> participants = store.participants.getOrDefault(lunchTime, Collections.emptySet());
+        final List<Vote> votes = new ArrayList<>();
+        lunchVotes(lunchTime).forEach((personId, placeVotes) -> {
+            if (participants.contains(personId)) {
+                placeVotes.entrySet().forEach(placeVote -> votes.add(store.lunchVote(personId, placeVote)));
+            }
+        });
+        return votes;
+    }
+
+    @Override
+    public Collection<Vote> getLunchVotesByPlaces(LocalDate lunchTime, Collection<Integer> placeIds) {
+        final Set<Integer> places = new HashSet<>(placeIds);
+        final List<Vote> votes = new ArrayList<>();
+        lunchVotes(lunchTime).forEach((personId, placeVotes) -> placeVotes.entrySet().forEach(placeVote -> {
+            if (places.contains(placeVote.getKey())) {
+                votes.add(store.lunchVote(personId, placeVote));
+            }
+        }));
+        return votes;
+    }
+
+    @Override
+    public void removeLunchVotes(LocalDate lunchTime, int personId) {
+        store.write(StoreEvent.lunchVotesRemoved(lunchTime, personId));
+    }
+
+    private ConcurrentMap<Integer, ConcurrentMap<Integer, VoteType>> lunchVotes(LocalDate lunchTime) {
+        final ConcurrentMap<Integer, ConcurrentMap<Integer, VoteType>> votes = store.lunchVotes.get(lunchTime);
+        return votes != null ? votes : new ConcurrentHashMap<>();
+    }
+}
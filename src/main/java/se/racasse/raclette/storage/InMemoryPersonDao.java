@@ -0,0 +1,150 @@
+package se.racasse.raclette.storage;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonDao;
+import se.racasse.raclette.person.PersonRef;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagSet;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+@Profile("memory")
+class InMemoryPersonDao implements PersonDao {
+
+    private final MemoryStore store;
+
+    InMemoryPersonDao(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Person getPerson(int personId) {
+        final Person person = person(personId);
+        if (person == null) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        return person;
+    }
+
+    @Override
+    public Optional<Person> getPersonByName(String name) {
+        final Integer personId = store.personIdsByName.get(MemoryStore.nameKey(name));
+        return personId != null ? Optional.ofNullable(person(personId)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<PersonRef> getPersonRefByName(String name) {
+        return getPersonByName(name).map(person -> {
+            final PersonRef ref = new PersonRef();
+            ref.id = person.id;
+            ref.name = person.name;
+            return ref;
+        });
+    }
+
+    @Override
+    public Collection<PersonRef> getPersonRefsByName(Collection<String> names) {
+        final List<PersonRef> persons = new ArrayList<>();
+        for (String name : names) {
+            getPersonRefByName(name).ifPresent(persons::add);
+        }
+        return persons;
+    }
+
+    @Override
+    public Collection<Person> getPersons(Collection<Integer> personIds) {
+        final List<Person> persons = new ArrayList<>();
+        for (Integer personId : personIds) {
+            final Person person = person(personId);
+            if (person != null) {
+                persons.add(person);
+            }
+        }
+        return persons;
+    }
+
+    @Override
+    public Collection<Person> getParticipatingPersons(LocalDate lunchTimeDate) {
+        return getPersons(store.participants.getOrDefault(lunchTimeDate, Collections.emptySet()));
+    }
+
+    @Override
+    public int insertPerson(String name) {
+        final int id = store.personSequence.incrementAndGet();
+        store.write(StoreEvent.person(id, name));
+        return id;
+    }
+
+    @Override
+    public Collection<Tag> getTags(int personId, TagType tagType) {
+        return tags(personId).getOrDefault(tagType, Collections.emptySet()).stream().map(Tag::new).collect(toList());
+    }
+
+    @Override
+    public Table<Integer, TagType, Collection<Tag>> getTags(Collection<Integer> personIds) {
+        final Table<Integer, TagType, Collection<Tag>> tags = HashBasedTable.create();
+        for (Integer personId : personIds) {
+            tags(personId).forEach((type, names) -> {
+                if (!names.isEmpty()) {
+                    final TagSet personTags = new TagSet();
+                    names.forEach(name -> personTags.add(new Tag(name)));
+                    tags.put(personId, type, personTags);
+                }
+            });
+        }
+        return tags;
+    }
+
+    @Override
+    public void insertTag(int personId, String tag, TagType type) {
+        store.write(StoreEvent.personTag(StoreEvent.Kind.PERSON_TAG, personId, tag, type));
+    }
+
+    @Override
+    public void deleteTag(int personId, String tag, TagType type) {
+        store.write(StoreEvent.personTag(StoreEvent.Kind.PERSON_TAG_DELETED, personId, tag, type));
+    }
+
+    @Override
+    public Collection<Vote> getPlaceVotes(Collection<Integer> personIds) {
+        final List<Vote> votes = new ArrayList<>();
+        for (Integer personId : personIds) {
+            store.placeVotesByPerson.getOrDefault(personId, Collections.emptySet())
+                    .forEach(key -> votes.add(store.vote(key)));
+        }
+        return votes;
+    }
+
+    private Person person(int personId) {
+        final String name = store.persons.get(personId);
+        if (name == null) {
+            return null;
+        }
+        final Person person = new Person();
+        person.id = personId;
+        person.name = name;
+        return person;
+    }
+
+    private Map<TagType, Set<String>> tags(int personId) {
+        final Map<TagType, Set<String>> tags = store.personTags.get(personId);
+        return tags != null ? tags : Collections.emptyMap();
+    }
+}
@@ -0,0 +1,94 @@
+package se.racasse.raclette.storage;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceDao;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+@Profile("memory")
+class InMemoryPlaceDao implements PlaceDao {
+
+    private final MemoryStore store;
+
+    InMemoryPlaceDao(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Collection<Place> getAllPlaces() {
+        final List<Place> places = new ArrayList<>();
+        store.places.forEach((id, name) -> {
+            final Place place = new Place();
+            place.id = id;
+            place.name = name;
+            places.add(place);
+        });
+        return places;
+    }
+
+    @Override
+    public Collection<Tag> getPlaceTags(int placeId) {
+        return store.placeTags.getOrDefault(placeId, Collections.emptySet()).stream().map(Tag::new).collect(toList());
+    }
+
+    @Override
+    public Multimap<Integer, Tag> getPlaceTags(Collection<Integer> placeIds) {
+        final Multimap<Integer, Tag> tags = Multimaps.newSetMultimap(new HashMap<>(), HashSet::new);
+        for (Integer placeId : placeIds) {
+            store.placeTags.getOrDefault(placeId, Collections.emptySet()).forEach(tag -> tags.put(placeId, new Tag(tag)));
+        }
+        return tags;
+    }
+
+    @Override
+    public Collection<Vote> getPlaceVotes(Collection<Integer> placeIds) {
+        final List<Vote> votes = new ArrayList<>();
+        for (Integer placeId : placeIds) {
+            store.placeVotesByPlace.getOrDefault(placeId, Collections.emptySet())
+                    .forEach(key -> votes.add(store.vote(key)));
+        }
+        return votes;
+    }
+
+    @Override
+    public int insertPlace(Place place) {
+        final int id = store.placeSequence.incrementAndGet();
+        store.write(StoreEvent.place(id, place.name));
+        return id;
+    }
+
+    @Override
+    public void insertPlaceTag(int placeId, String tag) {
+        store.write(StoreEvent.placeTag(StoreEvent.Kind.PLACE_TAG, placeId, tag));
+    }
+
+    @Override
+    public void deletePlaceTag(int placeId, String tag) {
+        store.write(StoreEvent.placeTag(StoreEvent.Kind.PLACE_TAG_DELETED, placeId, tag));
+    }
+
+    @Override
+    public void insertVote(int personId, int placeId, VoteType type) {
+        store.write(StoreEvent.placeVote(placeId, personId, type, 1));
+    }
+
+    @Override
+    public void insertVotes(Collection<Vote> votes) {
+        votes.forEach(vote -> store.write(StoreEvent.placeVote(vote.placeId, vote.personId, vote.type, vote.count)));
+    }
+}
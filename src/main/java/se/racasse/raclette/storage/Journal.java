@@ -0,0 +1,239 @@
+package se.racasse.raclette.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Append-only log of store events in a memory-mapped file, plus a snapshot of the
+// whole store taken when the journal is compacted.
+//
+// Both files start with a magic number and a generation. Journal records are
+// length-prefixed and checksummed; replay stops at the first record that is
+// missing or torn. A snapshot covers every journal up to and including its
+// generation, so a crash between writing a snapshot and starting the next
+// journal leaves a journal that is skipped on replay.
+//
+// Not thread safe; MemoryStore serializes all calls.
+@Component
+@Profile("memory")
+@ConditionalOnProperty("raclette.journal.dir")
+class Journal {
+
+    private final static Logger LOG = LoggerFactory.getLogger(Journal.class);
+
+    private static final int MAGIC = 0x52434c4a;
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final int size;
+    private final boolean sync;
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long generation;
+
+    Journal(@Value("${raclette.journal.dir}") String dir,
+            @Value("${raclette.journal.size:67108864}") int size,
+            @Value("${raclette.journal.sync:false}") boolean sync) {
+        final Path directory = Paths.get(dir);
+        this.journalFile = directory.resolve("journal.bin");
+        this.snapshotFile = directory.resolve("snapshot.bin");
+        this.size = size;
+        this.sync = sync;
+    }
+
+    // Feeds the snapshot and then the journal written after it to the consumer,
+    // and leaves the journal open for appending after its last intact record.
+    void replay(Consumer<StoreEvent> consumer) {
+        try {
+            Files.createDirectories(journalFile.getParent());
+            long covered = 0;
+            int snapshotEvents = 0;
+            if (Files.exists(snapshotFile)) {
+                try (FileChannel snapshot = FileChannel.open(snapshotFile, READ)) {
+                    final ByteBuffer records = snapshot.map(FileChannel.MapMode.READ_ONLY, 0, snapshot.size());
+                    covered = readHeader(records, snapshotFile);
+                    snapshotEvents = readRecords(records, consumer);
+                }
+            }
+            int journalEvents = 0;
+            if (Files.exists(journalFile)) {
+                channel = FileChannel.open(journalFile, READ, WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+                generation = readHeader(buffer, journalFile);
+                if (generation > covered) {
+                    journalEvents = readRecords(buffer, consumer);
+                } else {
+                    startJournal(covered + 1);
+                }
+            } else {
+                startJournal(covered + 1);
+            }
+            LOG.info("Replayed {} snapshot and {} journal events from {}", snapshotEvents, journalEvents, journalFile.getParent());
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not replay " + journalFile, e);
+        }
+    }
+
+    // Returns false, without writing anything, when the journal is full and has to be compacted.
+    boolean append(StoreEvent event) {
+        final ByteBuffer payload = encode(event);
+        final int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_SIZE + payload.remaining()) {
+            if (start == HEADER_SIZE) {
+                throw new IllegalArgumentException("Event does not fit in a journal of " + size + " bytes");
+            }
+            return false;
+        }
+        final int length = payload.remaining();
+        final int checksum = checksum(payload);
+        buffer.position(start + RECORD_HEADER_SIZE);
+        buffer.put(payload);
+        buffer.putInt(start + 4, checksum);
+        // The length is written last, so a record only becomes visible once it is complete.
+        buffer.putInt(start, length);
+        if (sync) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    // Writes the events produced by state as the new snapshot and starts an empty journal.
+    void compact(Consumer<Consumer<StoreEvent>> state) {
+        final Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            final ByteBuffer out = ByteBuffer.allocate(1 << 20);
+            out.putInt(MAGIC).putLong(generation);
+            state.accept(event -> {
+                final ByteBuffer payload = encode(event);
+                if (out.remaining() < RECORD_HEADER_SIZE + payload.remaining()) {
+                    try {
+                        drain(out, snapshot);
+                    } catch (IOException e) {
+                        throw new DataAccessResourceFailureException("Could not write " + tmp, e);
+                    }
+                }
+                out.putInt(payload.remaining()).putInt(checksum(payload)).put(payload);
+            });
+            drain(out, snapshot);
+            snapshot.force(true);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write " + tmp, e);
+        }
+        try {
+            Files.move(tmp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            startJournal(generation + 1);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not compact " + journalFile, e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void startJournal(long generation) throws IOException {
+        close();
+        final Path tmp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (FileChannel journal = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(generation);
+            header.flip();
+            journal.write(header);
+            journal.force(true);
+        }
+        Files.move(tmp, journalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(journalFile, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.position(HEADER_SIZE);
+        this.generation = generation;
+    }
+
+    private ByteBuffer encode(StoreEvent event) {
+        while (true) {
+            scratch.clear();
+            try {
+                event.writeTo(scratch);
+                scratch.flip();
+                return scratch;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private int checksum(ByteBuffer payload) {
+        crc.reset();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static long readHeader(ByteBuffer records, Path file) throws IOException {
+        if (records.remaining() < HEADER_SIZE || records.getInt() != MAGIC) {
+            throw new IOException(file + " is not a journal file");
+        }
+        return records.getLong();
+    }
+
+    private int readRecords(ByteBuffer records, Consumer<StoreEvent> consumer) {
+        int events = 0;
+        while (records.remaining() >= RECORD_HEADER_SIZE) {
+            final int start = records.position();
+            final int length = records.getInt();
+            final int checksum = records.getInt();
+            if (length <= 0 || length > records.remaining()) {
+                records.position(start);
+                break;
+            }
+            final ByteBuffer payload = records.slice();
+            payload.limit(length);
+            if (checksum(payload) != checksum) {
+                LOG.warn("Ignoring torn record at {} and everything after it", start);
+                records.position(start);
+                break;
+            }
+            consumer.accept(StoreEvent.readFrom(payload));
+            records.position(start + RECORD_HEADER_SIZE + length);
+            events++;
+        }
+        return events;
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,250 @@
+package se.racasse.raclette.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// The tables of the in-memory engine. Each map mirrors a table of the MySQL schema,
+// with extra maps standing in for the secondary indexes the DAOs look up by.
+// The DAOs read the maps directly but change them only by writing events, which
+// the journal, when raclette.journal.dir is set, persists and replays at startup.
+@Component
+@Profile("memory")
+class MemoryStore {
+
+    private final static Logger LOG = LoggerFactory.getLogger(MemoryStore.class);
+
+    final AtomicInteger placeSequence = new AtomicInteger();
+    final ConcurrentMap<Integer, String> places = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<String>> placeTags = new ConcurrentHashMap<>();
+
+    final AtomicInteger personSequence = new AtomicInteger();
+    final ConcurrentMap<Integer, String> persons = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Integer> personIdsByName = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, ConcurrentMap<TagType, Set<String>>> personTags = new ConcurrentHashMap<>();
+
+    final ConcurrentMap<PlaceVoteKey, Integer> placeVotes = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<PlaceVoteKey>> placeVotesByPlace = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<PlaceVoteKey>> placeVotesByPerson = new ConcurrentHashMap<>();
+
+    final ConcurrentSkipListSet<LocalDate> lunchTimes = new ConcurrentSkipListSet<>();
+    final ConcurrentMap<LocalDate, Integer> lunches = new ConcurrentHashMap<>();
+    final ConcurrentMap<LocalDate, Set<Integer>> participants = new ConcurrentHashMap<>();
+    // lunch time -> person -> place -> vote
+    final ConcurrentMap<LocalDate, ConcurrentMap<Integer, ConcurrentMap<Integer, VoteType>>> lunchVotes = new ConcurrentHashMap<>();
+
+    private final Journal journal;
+
+    @Autowired
+    MemoryStore(ObjectProvider<Journal> journal) {
+        this(journal.getIfAvailable());
+    }
+
+    MemoryStore(Journal journal) {
+        this.journal = journal;
+    }
+
+    @PostConstruct
+    void open() {
+        if (journal != null) {
+            journal.replay(this::apply);
+        }
+    }
+
+    // Writes are serialized so that the journal records them in the order they were applied.
+    // Events are applied first, since that is where they are validated, and a rejected
+    // event must not end up in the journal.
+    synchronized void write(StoreEvent event) {
+        apply(event);
+        if (journal == null) {
+            return;
+        }
+        final boolean appended;
+        try {
+            appended = journal.append(event);
+        } catch (RuntimeException e) {
+            compactAfter(e);
+            return;
+        }
+        if (!appended) {
+            // The event is already applied and therefore part of the snapshot.
+            journal.compact(this::snapshot);
+        }
+    }
+
+    // An applied event that could not be journaled only survives a restart through a
+    // snapshot. If that fails too, memory and disk differ and the write fails.
+    private void compactAfter(RuntimeException failure) {
+        try {
+            journal.compact(this::snapshot);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            throw failure;
+        }
+        LOG.warn("Could not journal a store event, wrote a snapshot instead", failure);
+    }
+
+    @Scheduled(initialDelayString = "${raclette.journal.snapshot-interval:3600000}",
+            fixedDelayString = "${raclette.journal.snapshot-interval:3600000}")
+    synchronized void compact() {
+        if (journal != null) {
+            journal.compact(this::snapshot);
+        }
+    }
+
+    private void apply(StoreEvent event) {
+        switch (event.kind) {
+            case PLACE:
+                placeSequence.accumulateAndGet(event.placeId, Math::max);
+                places.put(event.placeId, event.text);
+                break;
+            case PLACE_TAG:
+                checkAdded(placeTags.computeIfAbsent(event.placeId, id -> newSet()).add(event.text), "place_tag");
+                break;
+            case PLACE_TAG_DELETED:
+                placeTags.getOrDefault(event.placeId, Collections.emptySet()).remove(event.text);
+                break;
+            case PLACE_VOTE:
+                // The count is stored before the key is indexed, so readers never see a key without one.
+                final PlaceVoteKey key = new PlaceVoteKey(event.placeId, event.personId, event.voteType);
+                placeVotes.merge(key, event.count, Integer::sum);
+                placeVotesByPlace.computeIfAbsent(event.placeId, id -> newSet()).add(key);
+                placeVotesByPerson.computeIfAbsent(event.personId, id -> newSet()).add(key);
+                break;
+            case PERSON:
+                personSequence.accumulateAndGet(event.personId, Math::max);
+                checkAdded(personIdsByName.putIfAbsent(nameKey(event.text), event.personId) == null, "person");
+                persons.put(event.personId, event.text);
+                break;
+            case PERSON_TAG:
+                checkAdded(personTags.computeIfAbsent(event.personId, id -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(event.tagType, t -> newSet()).add(event.text), "person_tag");
+                break;
+            case PERSON_TAG_DELETED:
+                personTags.getOrDefault(event.personId, new ConcurrentHashMap<>())
+                        .getOrDefault(event.tagType, Collections.emptySet()).remove(event.text);
+                break;
+            case LUNCH_TIME:
+                checkAdded(lunchTimes.add(event.date), "lunch_time");
+                break;
+            case PARTICIPANT:
+                checkAdded(participants.computeIfAbsent(event.date, d -> newSet()).add(event.personId), "lunch_participant");
+                break;
+            case PARTICIPANT_REMOVED:
+                participants.getOrDefault(event.date, Collections.emptySet()).remove(event.personId);
+                break;
+            case LUNCH:
+                lunches.put(event.date, event.placeId);
+                break;
+            case LUNCH_VOTE:
+                lunchVotes.computeIfAbsent(event.date, d -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(event.personId, id -> new ConcurrentHashMap<>())
+                        .put(event.placeId, event.voteType);
+                break;
+            case LUNCH_VOTES_REMOVED:
+                lunchVotes.getOrDefault(event.date, new ConcurrentHashMap<>()).remove(event.personId);
+                break;
+        }
+    }
+
+    // The current state as the shortest sequence of events that rebuilds it.
+    private void snapshot(Consumer<StoreEvent> events) {
+        places.forEach((id, name) -> events.accept(StoreEvent.place(id, name)));
+        placeTags.forEach((id, tags) -> tags.forEach(tag -> events.accept(StoreEvent.placeTag(StoreEvent.Kind.PLACE_TAG, id, tag))));
+        persons.forEach((id, name) -> events.accept(StoreEvent.person(id, name)));
+        personTags.forEach((id, types) -> types.forEach((type, tags) ->
+                tags.forEach(tag -> events.accept(StoreEvent.personTag(StoreEvent.Kind.PERSON_TAG, id, tag, type)))));
+        placeVotes.forEach((key, count) -> events.accept(StoreEvent.placeVote(key.placeId, key.personId, key.type, count)));
+        lunchTimes.forEach(date -> events.accept(StoreEvent.lunchTime(date)));
+        lunches.forEach((date, placeId) -> events.accept(StoreEvent.lunch(date, placeId)));
+        participants.forEach((date, ids) -> ids.forEach(id ->
+                events.accept(StoreEvent.participant(StoreEvent.Kind.PARTICIPANT, date, id))));
+        lunchVotes.forEach((date, voters) -> voters.forEach((personId, votes) -> votes.forEach((placeId, type) ->
+                events.accept(StoreEvent.lunchVote(date, personId, placeId, type)))));
+    }
+
+    // MySQL compares names with a case insensitive collation.
+    static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static <T> Set<T> newSet() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    static void checkAdded(boolean added, String table) {
+        if (!added) {
+            throw new DuplicateKeyException("Duplicate entry in " + table);
+        }
+    }
+
+    // Names are resolved at read time, like the joins of the JDBC queries.
+    Vote vote(int placeId, int personId, VoteType type, int count) {
+        final Vote vote = new Vote();
+        vote.placeId = placeId;
+        vote.placeName = places.get(placeId);
+        vote.personId = personId;
+        vote.personName = persons.get(personId);
+        vote.type = type;
+        vote.count = count;
+        return vote;
+    }
+
+    Vote vote(PlaceVoteKey key) {
+        return vote(key.placeId, key.personId, key.type, placeVotes.get(key));
+    }
+
+    Vote lunchVote(int personId, Map.Entry<Integer, VoteType> placeVote) {
+        return vote(placeVote.getKey(), personId, placeVote.getValue(), 1);
+    }
+
+    static final class PlaceVoteKey {
+        final int placeId;
+        final int personId;
+        final VoteType type;
+
+        PlaceVoteKey(int placeId, int personId, VoteType type) {
+            this.placeId = placeId;
+            this.personId = personId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlaceVoteKey)) {
+                return false;
+            }
+            final PlaceVoteKey other = (PlaceVoteKey) o;
+            return placeId == other.placeId && personId == other.personId && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(placeId, personId, type);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package se.racasse.raclette.storage;
+
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.VoteType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// A mutation of the in-memory store. Events are what the journal records and
+// replays, so their binary form must stay readable by later versions: new kinds
+// get new codes and existing codes are never reused.
+final class StoreEvent {
+
+    enum Kind {
+        PLACE(1), PLACE_TAG(2), PLACE_TAG_DELETED(3), PLACE_VOTE(4),
+        PERSON(5), PERSON_TAG(6), PERSON_TAG_DELETED(7),
+        LUNCH_TIME(8), PARTICIPANT(9), PARTICIPANT_REMOVED(10), LUNCH(11),
+        LUNCH_VOTE(12), LUNCH_VOTES_REMOVED(13);
+
+        final byte code;
+
+        Kind(int code) {
+            this.code = (byte) code;
+        }
+
+        static Kind of(byte code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown event kind " + code);
+        }
+    }
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte NO_TYPE = 0;
+
+    final Kind kind;
+    int placeId;
+    int personId;
+    LocalDate date;
+    String text;
+    VoteType voteType;
+    TagType tagType;
+    int count;
+
+    private StoreEvent(Kind kind) {
+        this.kind = kind;
+    }
+
+    static StoreEvent place(int placeId, String name) {
+        final StoreEvent event = new StoreEvent(Kind.PLACE);
+        event.placeId = placeId;
+        event.text = name;
+        return event;
+    }
+
+    static StoreEvent placeTag(Kind kind, int placeId, String tag) {
+        final StoreEvent event = new StoreEvent(kind);
+        event.placeId = placeId;
+        event.text = tag;
+        return event;
+    }
+
+    static StoreEvent placeVote(int placeId, int personId, VoteType type, int count) {
+        final StoreEvent event = new StoreEvent(Kind.PLACE_VOTE);
+        event.placeId = placeId;
+        event.personId = personId;
+        event.voteType = type;
+        event.count = count;
+        return event;
+    }
+
+    static StoreEvent person(int personId, String name) {
+        final StoreEvent event = new StoreEvent(Kind.PERSON);
+        event.personId = personId;
+        event.text = name;
+        return event;
+    }
+
+    static StoreEvent personTag(Kind kind, int personId, String tag, TagType type) {
+        final StoreEvent event = new StoreEvent(kind);
+        event.personId = personId;
+        event.text = tag;
+        event.tagType = type;
+        return event;
+    }
+
+    static StoreEvent lunchTime(LocalDate date) {
+        final StoreEvent event = new StoreEvent(Kind.LUNCH_TIME);
+        event.date = date;
+        return event;
+    }
+
+    static StoreEvent participant(Kind kind, LocalDate date, int personId) {
+        final StoreEvent event = new StoreEvent(kind);
+        event.date = date;
+        event.personId = personId;
+        return event;
+    }
+
+    static StoreEvent lunch(LocalDate date, int placeId) {
+        final StoreEvent event = new StoreEvent(Kind.LUNCH);
+        event.date = date;
+        event.placeId = placeId;
+        return event;
+    }
+
+    static StoreEvent lunchVote(LocalDate date, int personId, int placeId, VoteType type) {
+        final StoreEvent event = new StoreEvent(Kind.LUNCH_VOTE);
+        event.date = date;
+        event.personId = personId;
+        event.placeId = placeId;
+        event.voteType = type;
+        return event;
+    }
+
+    static StoreEvent lunchVotesRemoved(LocalDate date, int personId) {
+        final StoreEvent event = new StoreEvent(Kind.LUNCH_VOTES_REMOVED);
+        event.date = date;
+        event.personId = personId;
+        return event;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put(kind.code);
+        buffer.putInt(placeId);
+        buffer.putInt(personId);
+        buffer.putInt(date != null ? (int) date.toEpochDay() : NO_DATE);
+        if (text != null) {
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        } else {
+            buffer.putInt(-1);
+        }
+        buffer.put(voteType != null ? (byte) voteType.name().charAt(0) : NO_TYPE);
+        buffer.put(tagType != null ? (byte) tagType.name().charAt(0) : NO_TYPE);
+        buffer.putInt(count);
+    }
+
+    static StoreEvent readFrom(ByteBuffer buffer) {
+        final StoreEvent event = new StoreEvent(Kind.of(buffer.get()));
+        event.placeId = buffer.getInt();
+        event.personId = buffer.getInt();
+        final int epochDay = buffer.getInt();
+        event.date = epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+        final int length = buffer.getInt();
+        if (length >= 0) {
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            event.text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        final byte voteType = buffer.get();
+        event.voteType = voteType != NO_TYPE ? VoteType.fromInitial(String.valueOf((char) voteType)) : null;
+        final byte tagType = buffer.get();
+        event.tagType = tagType != NO_TYPE ? TagType.fromInitial(String.valueOf((char) tagType)) : null;
+        event.count = buffer.getInt();
+        return event;
+    }
+}
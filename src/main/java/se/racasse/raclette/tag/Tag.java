@@ -4,9 +4,28 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public class Tag {
     public String name;
+    private int id;
 
     public Tag(String name) {
-        this.name = checkNotNull(name);
+        this(checkNotNull(name), TagDictionary.NONE);
+    }
+
+    Tag(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    // Interns the tag, for storing it in a TagSet.
+    int id() {
+        if (id == TagDictionary.NONE) {
+            id = TagDictionary.intern(name);
+        }
+        return id;
+    }
+
+    // NONE for a tag that no TagSet has ever held.
+    int lookupId() {
+        return id != TagDictionary.NONE ? id : TagDictionary.lookup(name);
     }
 
     @Override
@@ -0,0 +1,48 @@
+package se.racasse.raclette.tag;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Only tags that are stored in a TagSet are interned, so names that are merely
+// looked up, e.g. a user removing a tag they never had, don't take up ids. The
+// ids index bitsets, which is why their number is capped.
+final class TagDictionary {
+
+    static final int NONE = -1;
+    static final int MAX_TAGS = 1 << 16;
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int size;
+
+    private TagDictionary() {
+    }
+
+    static int intern(String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (TagDictionary.class) {
+            return ids.computeIfAbsent(name, n -> {
+                if (size == MAX_TAGS) {
+                    throw new IllegalStateException("There are already " + MAX_TAGS + " distinct tags");
+                }
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                names[size] = n;
+                return size++;
+            });
+        }
+    }
+
+    static int lookup(String name) {
+        return ids.getOrDefault(name, NONE);
+    }
+
+    static String name(int id) {
+        return names[id];
+    }
+}
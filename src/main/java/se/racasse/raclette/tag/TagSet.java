@@ -0,0 +1,184 @@
+package se.racasse.raclette.tag;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class TagSet extends AbstractSet<Tag> {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private final boolean mutable;
+    private long[] words = NO_WORDS;
+    private int size;
+
+    public TagSet() {
+        this(true);
+    }
+
+    private TagSet(boolean mutable) {
+        this.mutable = mutable;
+    }
+
+    public static TagSet of(Collection<Tag> tags) {
+        if (tags instanceof TagSet) {
+            return (TagSet) tags;
+        }
+        return copyOf(tags);
+    }
+
+    public static TagSet copyOf(Collection<Tag> tags) {
+        final TagSet tagSet = new TagSet();
+        tags.forEach(tagSet::set);
+        return tagSet;
+    }
+
+    public static TagSet immutableCopyOf(Collection<Tag> tags) {
+        if (tags instanceof TagSet && !((TagSet) tags).mutable) {
+            return (TagSet) tags;
+        }
+        final TagSet tagSet = new TagSet(false);
+        tags.forEach(tagSet::set);
+        return tagSet;
+    }
+
+    public int intersectionSize(TagSet other) {
+        final int length = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof TagSet)) {
+            return super.containsAll(c);
+        }
+        final long[] otherWords = ((TagSet) c).words;
+        for (int i = 0; i < otherWords.length; i++) {
+            final long word = i < words.length ? words[i] : 0L;
+            if ((otherWords[i] & ~word) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Tag && isSet(((Tag) o).lookupId());
+    }
+
+    @Override
+    public boolean add(Tag tag) {
+        checkMutable();
+        return set(tag);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        checkMutable();
+        return o instanceof Tag && clear(((Tag) o).lookupId());
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        words = NO_WORDS;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Tag> iterator() {
+        return new Iterator<Tag>() {
+            private int next = nextSetBit(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Tag next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = nextSetBit(next + 1);
+                return new Tag(TagDictionary.name(last), last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                checkMutable();
+                clear(last);
+                last = -1;
+            }
+        };
+    }
+
+    private boolean set(Tag tag) {
+        final int id = tag.id();
+        final int word = id >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        final long mask = 1L << id;
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        size++;
+        return true;
+    }
+
+    private boolean clear(int id) {
+        if (!isSet(id)) {
+            return false;
+        }
+        words[id >>> 6] &= ~(1L << id);
+        size--;
+        return true;
+    }
+
+    private boolean isSet(int id) {
+        final int word = id >>> 6;
+        return id != TagDictionary.NONE && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    private int nextSetBit(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    private void checkMutable() {
+        if (!mutable) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
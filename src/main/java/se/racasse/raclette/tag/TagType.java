@@ -2,6 +2,16 @@ package se.racasse.raclette.tag;
 
 public enum TagType {
 
-    PREFER, REQUIRE
+    PREFER, REQUIRE;
+
+    public static TagType fromInitial(String initial) {
+        switch (initial) {
+            case "P":
+                return TagType.PREFER;
+            case "R":
+                return TagType.REQUIRE;
+        }
+        throw new IllegalStateException();
+    }
 
 }
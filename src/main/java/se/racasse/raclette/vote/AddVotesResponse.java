@@ -0,0 +1,14 @@
+package se.racasse.raclette.vote;
+
+import se.racasse.raclette.ActionResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AddVotesResponse extends ActionResponse {
+    // One result per entry, in the order of the entries.
+    public List<VoteEntryResult> results = new ArrayList<>();
+    public AddVotesResponse(boolean success) {
+        super(success);
+    }
+}
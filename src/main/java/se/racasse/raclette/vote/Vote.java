@@ -7,5 +7,6 @@ public class Vote {
     public int placeId;
     public String placeName;
     public VoteType type;
+    public int count = 1;
 
 }
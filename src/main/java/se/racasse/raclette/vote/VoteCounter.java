@@ -0,0 +1,89 @@
+package se.racasse.raclette.vote;
+
+import java.util.Collection;
+import java.util.function.ToIntFunction;
+
+public final class VoteCounter {
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+
+    public VoteCounter() {
+        this(4);
+    }
+
+    public VoteCounter(int expectedKeys) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedKeys) * 2 - 1) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    public static VoteCounter countBy(Collection<Vote> votes, ToIntFunction<Vote> key) {
+        final VoteCounter counter = new VoteCounter(votes.size());
+        for (Vote vote : votes) {
+            counter.add(key.applyAsInt(vote), vote.count);
+        }
+        return counter;
+    }
+
+    public void increment(int key) {
+        add(key, 1);
+    }
+
+    // A zero count marks an empty slot, so only positive amounts are stored.
+    public void add(int key, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                counts[slot] += amount;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        counts[slot] = amount;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int get(int key) {
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(keys.length) + 1) & (keys.length - 1);
+    }
+
+    private void grow() {
+        final int[] oldKeys = keys;
+        final int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldCounts.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (counts[slot] != 0) {
+                    slot = (slot + 1) & (keys.length - 1);
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
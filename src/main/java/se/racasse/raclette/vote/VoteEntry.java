@@ -0,0 +1,9 @@
+package se.racasse.raclette.vote;
+
+public class VoteEntry {
+    public String person;
+    public String place;
+    public VoteType type;
+    // A vote on today's lunch rather than on the place itself.
+    public boolean lunch;
+}
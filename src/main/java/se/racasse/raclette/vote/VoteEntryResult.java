@@ -0,0 +1,18 @@
+package se.racasse.raclette.vote;
+
+public class VoteEntryResult {
+    public boolean accepted;
+    public String errorMessage;
+
+    public static VoteEntryResult accepted() {
+        final VoteEntryResult result = new VoteEntryResult();
+        result.accepted = true;
+        return result;
+    }
+
+    public static VoteEntryResult rejected(String errorMessage) {
+        final VoteEntryResult result = new VoteEntryResult();
+        result.errorMessage = errorMessage;
+        return result;
+    }
+}
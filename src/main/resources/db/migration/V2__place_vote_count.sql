@@ -0,0 +1,18 @@
+-- Folds the append-only place_vote table into per (place, person, type) counts.
+
+CREATE TABLE place_vote_count
+(
+  place_id INT NOT NULL,
+  person_id INT NOT NULL,
+  type CHAR NOT NULL,
+  vote_count INT NOT NULL,
+  PRIMARY KEY (place_id, person_id, type),
+  INDEX (person_id)
+) DEFAULT CHARACTER SET utf8;
+
+INSERT INTO place_vote_count (place_id, person_id, type, vote_count)
+SELECT place_id, person_id, type, COUNT(*)
+FROM place_vote
+GROUP BY place_id, person_id, type;
+
+DROP TABLE place_vote;
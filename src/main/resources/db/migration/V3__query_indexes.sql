@@ -0,0 +1,9 @@
+-- Indexes backing the DAO lookups that would otherwise scan a growing table.
+
+CREATE INDEX place_name_idx ON place (name);
+
+CREATE INDEX lunch_place_idx ON lunch (place_id, lunch_time_id);
+
+CREATE INDEX lunch_participant_lunch_time_idx ON lunch_participant (lunch_time_id, person_id);
+
+CREATE INDEX lunch_vote_lunch_time_idx ON lunch_vote (lunch_time_id, place_id);
@@ -0,0 +1,129 @@
+package se.racasse.raclette;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import se.racasse.raclette.lunch.AddLunchParticipantsResponse;
+import se.racasse.raclette.metrics.QueryBudget;
+import se.racasse.raclette.metrics.QueryStats;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.AddVotesResponse;
+import se.racasse.raclette.vote.VoteEntry;
+import se.racasse.raclette.vote.VoteType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+public class ActionsQueryBudgetTest {
+
+    @Autowired
+    private Actions actions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void getLunchStatusDoesNotDependOnCatalogSize() throws Exception {
+        jdbcTemplate.update("insert into lunch_time (date) select ? where not exists (select * from lunch_time)",
+                Date.valueOf(LocalDate.now().minusDays(1)));
+        actions.createLunchTimeForToday();
+        for (String name : new String[]{"alice", "bob", "carol"}) {
+            actions.addPerson(name);
+            actions.addPersonTag(name, "tag0", TagType.PREFER);
+            actions.addLunchParticipant(name);
+        }
+        addPlaces(0, 5);
+        final QueryStats small = QueryBudget.assertAtMost(9, actions::getLunchStatus);
+
+        addPlaces(5, 60);
+        final QueryStats large = QueryBudget.assertAtMost(9, actions::getLunchStatus);
+
+        assertTrue(large.total() <= small.total());
+    }
+
+    @Test
+    public void addLunchParticipantsDoesNotDependOnTheNumberOfNames() throws Exception {
+        jdbcTemplate.update("insert into lunch_time (date) select ? where not exists (select * from lunch_time)",
+                Date.valueOf(LocalDate.now().minusDays(1)));
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("enrollee" + i);
+            actions.addPerson("enrollee" + i);
+        }
+        actions.addLunchParticipant("enrollee0");
+        names.add("stranger");
+
+        final AddLunchParticipantsResponse[] response = new AddLunchParticipantsResponse[1];
+        QueryBudget.assertAtMost(7, () -> response[0] = actions.addLunchParticipants(names));
+
+        assertEquals(20, response[0].participants.size());
+        assertEquals(19, response[0].added.size());
+        assertEquals(Collections.singletonList("stranger"), response[0].unknownNames);
+        assertTrue(actions.addLunchParticipants(names).added.isEmpty());
+    }
+
+    @Test
+    public void addVotesDoesNotDependOnTheNumberOfVotes() throws Exception {
+        jdbcTemplate.update("insert into lunch_time (date) select ? where not exists (select * from lunch_time)",
+                Date.valueOf(LocalDate.now().minusDays(1)));
+        actions.addPerson("kiosk");
+        actions.addPerson("poller");
+        actions.addLunchParticipant("kiosk");
+        final List<VoteEntry> votes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            actions.addPlace("ballot" + i);
+            votes.add(vote("poller", "ballot" + i, VoteType.UP, false));
+            votes.add(vote("kiosk", "ballot" + i, i % 2 == 0 ? VoteType.UP : VoteType.DOWN, true));
+        }
+        votes.add(vote("poller", "ballot0", VoteType.DOWN, true));
+        votes.add(vote("nobody", "ballot0", VoteType.UP, false));
+        votes.add(vote("poller", "nowhere", VoteType.UP, false));
+
+        final AddVotesResponse[] response = new AddVotesResponse[1];
+        QueryBudget.assertAtMost(8, () -> response[0] = actions.addVotes(votes));
+
+        assertFalse(response[0].successful());
+        assertEquals(votes.size(), response[0].results.size());
+        assertEquals(100, response[0].results.stream().filter(r -> r.accepted).count());
+        assertEquals("poller must be a lunch participant to do lunch voting", response[0].results.get(100).errorMessage);
+        assertEquals("I know no person called 'nobody'", response[0].results.get(101).errorMessage);
+        assertEquals("I know no place called 'nowhere'", response[0].results.get(102).errorMessage);
+        final int poller = actions.getPerson("poller").person.get().id;
+        assertEquals(1, actions.getPlace("ballot7").place.get().countVotes(VoteType.UP, poller));
+        assertEquals(Integer.valueOf(50), jdbcTemplate.queryForObject(
+                "select count(*) from lunch_vote v join person p on p.id = v.person_id where p.name = 'kiosk'", Integer.class));
+    }
+
+    private static VoteEntry vote(String person, String place, VoteType type, boolean lunch) {
+        final VoteEntry vote = new VoteEntry();
+        vote.person = person;
+        vote.place = place;
+        vote.type = type;
+        vote.lunch = lunch;
+        return vote;
+    }
+
+    private void addPlaces(int from, int to) {
+        for (int i = from; i < to; i++) {
+            final String name = "place" + i;
+            actions.addPlace(name);
+            actions.addPlaceTag(name, "tag" + (i % 4));
+            actions.addVote("alice", name, VoteType.UP);
+            actions.addLunchVote("bob", name, i % 2 == 0 ? VoteType.UP : VoteType.DOWN);
+        }
+    }
+}
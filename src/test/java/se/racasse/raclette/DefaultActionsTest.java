@@ -0,0 +1,98 @@
+package se.racasse.raclette;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.racasse.raclette.lunch.LunchService;
+import se.racasse.raclette.lunch.SuggestResult;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.vote.AddVotesResponse;
+import se.racasse.raclette.vote.VoteEntry;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:actions;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+public class DefaultActionsTest {
+
+    @Autowired
+    private Actions actions;
+    @Autowired
+    private LunchService lunchService;
+    @Autowired
+    private PlaceService placeService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void rolledBackVotesLeaveCatalogPersonsAndSuggestionUntouched() {
+        actions.createLunchTimeForToday();
+        actions.addPerson("undone");
+        actions.addLunchParticipant("undone");
+        actions.addPlace("undone-place");
+        final LocalDate lunchTime = lunchService.getCurrentLunchTime();
+        final int personId = personService.getPersonByName("undone").get().id;
+        final float score = score(lunchService.suggestLunchPlace(lunchTime));
+        assertTrue(personService.getPerson(personId).placeVotes.isEmpty());
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            final AddVotesResponse response = actions.addVotes(Arrays.asList(
+                    vote("undone", "undone-place", VoteType.UP, false),
+                    vote("undone", "undone-place", VoteType.UP, true)));
+            assertTrue(response.successful());
+            status.setRollbackOnly();
+            return null;
+        });
+
+        final Place place = placeService.getPlaceByName("undone-place").get();
+        assertTrue(place.upVotes.isEmpty());
+        assertTrue(personService.getPerson(personId).placeVotes.isEmpty());
+        assertEquals(score, score(lunchService.suggestLunchPlace(lunchTime)), 0f);
+    }
+
+    @Test
+    public void nullVoteEntriesAreRejected() {
+        actions.addPerson("nullable");
+        actions.addPlace("nullable-place");
+
+        final AddVotesResponse response = actions.addVotes(Arrays.asList(
+                null, vote("nullable", "nullable-place", VoteType.DOWN, false)));
+
+        assertFalse(response.successful());
+        assertFalse(response.results.get(0).accepted);
+        assertEquals("A vote must name a person, a place and UP or DOWN", response.results.get(0).errorMessage);
+        assertTrue(response.results.get(1).accepted);
+    }
+
+    private static float score(SuggestResult result) {
+        return result.scores.stream()
+                .filter(score -> score.place.name.equals("undone-place"))
+                .findFirst().get().score;
+    }
+
+    private static VoteEntry vote(String person, String place, VoteType type, boolean lunch) {
+        final VoteEntry vote = new VoteEntry();
+        vote.person = person;
+        vote.place = place;
+        vote.type = type;
+        vote.lunch = lunch;
+        return vote;
+    }
+}
@@ -0,0 +1,104 @@
+package se.racasse.raclette;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import se.racasse.raclette.metrics.QueryCounter;
+import se.racasse.raclette.metrics.QueryStats;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.VoteType;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+public class QueryPlanTest {
+
+    // Statements that read a whole table on purpose.
+    private static final Set<String> FULL_READS = ImmutableSet.of(
+            "select * from place");
+
+    @Autowired
+    private Actions actions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void daoStatementsDoNotScanGrowingTables() throws Exception {
+        jdbcTemplate.update("insert into lunch_time (date) select ? where not exists (select * from lunch_time)",
+                Date.valueOf(LocalDate.now().minusDays(1)));
+        final QueryStats stats = QueryCounter.measure(this::exerciseActions);
+        assertTrue(stats.shapes().size() > 20);
+
+        final Map<String, String> scans = new TreeMap<>();
+        for (String shape : stats.shapes()) {
+            if (shape.startsWith("insert") || FULL_READS.contains(shape)) {
+                continue;
+            }
+            final String plan = explain(shape);
+            if (plan.contains(".tableScan")) {
+                scans.put(shape, plan);
+            }
+        }
+        assertTrue("Statements scanning whole tables: " + scans, scans.isEmpty());
+    }
+
+    private void exerciseActions() {
+        actions.createLunchTimeForToday();
+        actions.addPerson("planner");
+        actions.addPerson("plotter");
+        actions.addPersonTag("planner", "soup", TagType.PREFER);
+        actions.addPersonTag("plotter", "soup", TagType.REQUIRE);
+        actions.removePersonTag("plotter", "soup", TagType.REQUIRE);
+        actions.addPlace("plan a");
+        actions.addPlace("plan b");
+        actions.addPlaceTag("plan a", "soup");
+        actions.addPlaceTag("plan b", "salad");
+        actions.removePlaceTag("plan b", "salad");
+        actions.addVote("planner", "plan a", VoteType.UP);
+        actions.addVote("plotter", "plan b", VoteType.DOWN);
+        actions.addLunchParticipant("planner");
+        actions.addLunchParticipant("plotter");
+        actions.addLunchVote("planner", "plan a", VoteType.UP);
+        actions.getLunchStatus();
+        actions.removeLunchParticipant("plotter");
+        actions.getPlace("plan a");
+        actions.getAllPlaces();
+        actions.getPerson("planner");
+        actions.decideSuggestedLunchPlace();
+    }
+
+    // Parameters are bound to null; the plan only depends on which columns are compared.
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setNull(i, Types.VARCHAR);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    final StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+}
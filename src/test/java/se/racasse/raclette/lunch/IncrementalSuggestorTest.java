@@ -0,0 +1,129 @@
+package se.racasse.raclette.lunch;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceScore;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:incremental;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+public class IncrementalSuggestorTest {
+
+    private static final LocalDate EARLIER = LocalDate.of(2040, 1, 1);
+    private static final LocalDate CURRENT = LocalDate.of(2040, 1, 2);
+
+    @Autowired
+    private LunchService lunchService;
+    @Autowired
+    private PlaceService placeService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private LunchContextLoader lunchContextLoader;
+
+    @Test
+    public void deltasRankLikeAFullRecompute() {
+        lunchService.addLunchTime(EARLIER);
+        lunchService.addLunchTime(CURRENT);
+        final int alice = personService.addPerson("inc-alice").id;
+        final int bob = personService.addPerson("inc-bob").id;
+        final int carol = personService.addPerson("inc-carol").id;
+        final int dave = personService.addPerson("inc-dave").id;
+        final int pasta = addPlace("inc-pasta", "italian");
+        final int pizza = addPlace("inc-pizza", "italian");
+        final int sushi = addPlace("inc-sushi", "japanese");
+        final int salad = addPlace("inc-salad", "green");
+        assertSameAsRecompute();
+
+        lunchService.addLunchTimeParticipant(CURRENT, alice);
+        assertSameAsRecompute();
+
+        lunchService.addLunchTimeParticipants(CURRENT, Arrays.asList(bob, carol, dave));
+        assertSameAsRecompute();
+
+        lunchService.removeLunchTimeParticipant(CURRENT, dave);
+        assertSameAsRecompute();
+
+        lunchService.addLunchVote(alice, CURRENT, sushi, VoteType.UP);
+        assertSameAsRecompute();
+
+        lunchService.addLunchVotes(CURRENT, Arrays.asList(vote(bob, sushi, VoteType.DOWN), vote(carol, salad, VoteType.UP)));
+        assertSameAsRecompute();
+
+        lunchService.addLunchVote(alice, CURRENT, sushi, VoteType.DOWN);
+        assertSameAsRecompute();
+
+        placeService.addVote(bob, pizza, VoteType.UP);
+        assertSameAsRecompute();
+
+        placeService.addVotes(Arrays.asList(vote(alice, pasta, VoteType.DOWN), vote(dave, salad, VoteType.UP)));
+        assertSameAsRecompute();
+
+        personService.addTag(carol, "italian", TagType.PREFER);
+        assertSameAsRecompute();
+
+        placeService.addPlaceTag(salad, "italian");
+        assertSameAsRecompute();
+
+        personService.addTag(bob, "italian", TagType.REQUIRE);
+        assertSameAsRecompute();
+
+        personService.removeTag(bob, "italian", TagType.REQUIRE);
+        placeService.removePlaceTag(salad, "italian");
+        assertSameAsRecompute();
+
+        lunchService.addLunchTimeParticipant(CURRENT, dave);
+        assertSameAsRecompute();
+
+        lunchService.setLunchPlace(EARLIER, pizza);
+        assertSameAsRecompute();
+
+        addPlace("inc-tacos", "mexican");
+        assertSameAsRecompute();
+    }
+
+    private void assertSameAsRecompute() {
+        final SuggestResult actual = lunchService.suggestLunchPlace(CURRENT);
+        final SuggestResult expected = new LunchSuggestor(lunchContextLoader.load(CURRENT)).suggest();
+        assertEquals(expected.totalCount, actual.totalCount);
+        assertEquals(expected.scores.size(), actual.scores.size());
+        for (int i = 0; i < expected.scores.size(); i++) {
+            final PlaceScore e = expected.scores.get(i);
+            final PlaceScore a = actual.scores.get(i);
+            assertEquals(e.place.id, a.place.id);
+            assertEquals(e.score, a.score, 0f);
+        }
+    }
+
+    private int addPlace(String name, String tag) {
+        final Place place = new Place();
+        place.name = name;
+        final int placeId = placeService.addPlace(place);
+        placeService.addPlaceTag(placeId, tag);
+        return placeId;
+    }
+
+    private static Vote vote(int personId, int placeId, VoteType type) {
+        final Vote vote = new Vote();
+        vote.personId = personId;
+        vote.placeId = placeId;
+        vote.type = type;
+        return vote;
+    }
+}
@@ -0,0 +1,112 @@
+package se.racasse.raclette.lunch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LunchEventBroadcasterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2017, 5, 1);
+
+    private final LunchEventBroadcaster broadcaster = new LunchEventBroadcaster(new SimpleMeterRegistry(), 10, 60000);
+
+    @After
+    public void shutdown() throws InterruptedException {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    public void slowSubscriberIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch dropped = new CountDownLatch(1);
+        broadcaster.subscribe(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, dropped::countDown);
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(100);
+        broadcaster.subscribe(event -> {
+            received.add(event.personId);
+            done.countDown();
+        }, () -> {
+        });
+
+        for (int i = 0; i < 100; i++) {
+            broadcaster.publish(LunchEvent.joined(DATE, i));
+            // Keeps the fast subscriber within its buffer.
+            final long undelivered = 5;
+            while (done.getCount() > 100 - (i + 1) + undelivered) {
+                Thread.yield();
+            }
+        }
+
+        assertTrue(dropped.await(5, TimeUnit.SECONDS));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), received);
+        release.countDown();
+    }
+
+    @Test
+    public void stalledSendsAreInterruptedAndDropped() throws Exception {
+        final LunchEventBroadcaster broadcaster = new LunchEventBroadcaster(new SimpleMeterRegistry(), 10, 100);
+        try {
+            final CountDownLatch interrupted = new CountDownLatch(4);
+            final CountDownLatch dropped = new CountDownLatch(4);
+            // Several stalled clients at once.
+            for (int i = 0; i < 4; i++) {
+                broadcaster.subscribe(event -> {
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                }, dropped::countDown);
+            }
+            final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            broadcaster.subscribe(event -> received.add(event.personId), () -> {
+            });
+
+            broadcaster.publish(LunchEvent.joined(DATE, 1));
+            assertTrue(dropped.await(5, TimeUnit.SECONDS));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            broadcaster.publish(LunchEvent.joined(DATE, 2));
+
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (received.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(Arrays.asList(1, 2), received);
+        } finally {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelledSubscriberGetsNoMoreEvents() {
+        final LunchEventBroadcaster.Subscription subscription = broadcaster.subscribe(event -> {
+        }, () -> {
+        });
+        assertTrue(broadcaster.hasSubscribers());
+
+        subscription.cancel();
+
+        assertFalse(broadcaster.hasSubscribers());
+    }
+}
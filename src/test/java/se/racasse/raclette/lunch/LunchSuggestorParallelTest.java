@@ -0,0 +1,182 @@
+package se.racasse.raclette.lunch;
+
+import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.person.PersonService;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceService;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteCounter;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LunchSuggestorParallelTest {
+
+    private final ScoringPool pool = new ScoringPool(4, 0);
+    private final ScoringPool thresholdPool = new ScoringPool(4, 100);
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+        thresholdPool.shutdown();
+    }
+
+    @Test
+    public void parallelResultIsIdenticalToSequential() throws Exception {
+        final Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            final LunchContext lunchContext = randomContext(random, 3000, 20);
+            final SuggestResult sequential = new LunchSuggestor(lunchContext).suggest();
+            final SuggestResult parallel = new LunchSuggestor(lunchContext).suggestParallel(pool);
+
+            assertTrue(sequential.scores.size() > 0);
+            assertEquals(sequential.scores.size(), parallel.scores.size());
+            for (int i = 0; i < sequential.scores.size(); i++) {
+                assertSame(sequential.scores.get(i).place, parallel.scores.get(i).place);
+                assertEquals(0, Float.compare(sequential.scores.get(i).score, parallel.scores.get(i).score));
+            }
+        }
+    }
+
+    @Test
+    public void switchesToParallelAboveThreshold() throws Exception {
+        final LunchContext small = randomContext(new Random(1), 50, 3);
+        new LunchSuggestor(small, thresholdPool).suggest(5);
+        assertEquals(Collections.singleton(Thread.currentThread()), scoringThreads(small));
+
+        final LunchContext large = randomContext(new Random(1), 500, 3);
+        final SuggestResult automatic = new LunchSuggestor(large, thresholdPool).suggest(5);
+        assertScoredInPool(large);
+        assertSameRanking(new LunchSuggestor(large).suggest(5), automatic);
+    }
+
+    @Test
+    public void incrementalSuggestorBuildsLargeCatalogsInThePool() throws Exception {
+        final LocalDate date = LocalDate.of(2017, 5, 1);
+        final LunchContext large = randomContext(new Random(3), 500, 5);
+        final LunchContextLoader loader = mock(LunchContextLoader.class);
+        when(loader.load(date)).thenReturn(large);
+        final IncrementalSuggestor suggestor = new IncrementalSuggestor(loader, mock(PlaceService.class),
+                mock(PersonService.class), thresholdPool, new SimpleMeterRegistry(), false);
+
+        final SuggestResult incremental = suggestor.suggest(date, 5);
+
+        assertScoredInPool(large);
+        assertSameRanking(new LunchSuggestor(large).suggest(5), incremental);
+    }
+
+    private void assertScoredInPool(LunchContext lunchContext) {
+        final Set<Thread> threads = scoringThreads(lunchContext);
+        assertFalse(threads.isEmpty());
+        for (Thread thread : threads) {
+            assertTrue(thread instanceof ForkJoinWorkerThread);
+            assertSame(thresholdPool.pool(), ((ForkJoinWorkerThread) thread).getPool());
+        }
+    }
+
+    private static void assertSameRanking(SuggestResult expected, SuggestResult actual) {
+        assertEquals(expected.scores.size(), actual.scores.size());
+        for (int i = 0; i < expected.scores.size(); i++) {
+            assertSame(expected.scores.get(i).place, actual.scores.get(i).place);
+        }
+    }
+
+    private static Set<Thread> scoringThreads(LunchContext lunchContext) {
+        final Set<Thread> threads = new HashSet<>();
+        lunchContext.participants.forEach(person -> threads.addAll(((RecordingPerson) person).threads));
+        return threads;
+    }
+
+    private static LunchContext randomContext(Random random, int placeCount, int personCount) {
+        final List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < personCount; i++) {
+            final Person person = new RecordingPerson();
+            person.id = i + 1;
+            person.name = "person" + i;
+            if (random.nextInt(10) == 0) {
+                person.requiredTags.add(randomTag(random));
+            }
+            for (int t = 0; t < 3; t++) {
+                person.preferredTags.add(randomTag(random));
+            }
+            persons.add(person);
+        }
+        final List<Place> places = new ArrayList<>();
+        final Map<Integer, LocalDate> latestLunches = new HashMap<>();
+        final VoteCounter upVotes = new VoteCounter();
+        final VoteCounter downVotes = new VoteCounter();
+        for (int i = 0; i < placeCount; i++) {
+            final Place place = new Place();
+            place.id = i + 1;
+            // Few distinct names and scores so that ties are common
+            place.name = "place" + random.nextInt(placeCount / 3 + 1);
+            for (int t = 0; t < 6; t++) {
+                place.tags.add(randomTag(random));
+            }
+            final List<Vote> up = new ArrayList<>();
+            final List<Vote> down = new ArrayList<>();
+            for (int v = 0; v < random.nextInt(5); v++) {
+                final Vote vote = new Vote();
+                vote.personId = random.nextInt(personCount * 2) + 1;
+                vote.placeId = place.id;
+                vote.type = random.nextBoolean() ? VoteType.UP : VoteType.DOWN;
+                (vote.type == VoteType.UP ? up : down).add(vote);
+            }
+            place.upVotes = ImmutableList.copyOf(up);
+            place.downVotes = ImmutableList.copyOf(down);
+            if (random.nextBoolean()) {
+                latestLunches.put(place.id, LocalDate.now().minusDays(1 + random.nextInt(20)));
+            }
+            if (random.nextInt(20) == 0) {
+                (random.nextBoolean() ? upVotes : downVotes).increment(place.id);
+            }
+            places.add(place);
+        }
+        final LunchContext lunchContext = new LunchContext();
+        lunchContext.places = places;
+        lunchContext.participants = persons;
+        lunchContext.latestLunches = latestLunches;
+        lunchContext.upVotes = upVotes;
+        lunchContext.downVotes = downVotes;
+        lunchContext.lunchVotes = Collections.emptyList();
+        return lunchContext;
+    }
+
+    private static Tag randomTag(Random random) {
+        return new Tag("tag" + random.nextInt(12));
+    }
+
+    // Remembers the threads that checked its required tags, i.e. that scored places for it.
+    private static class RecordingPerson extends Person {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean accepts(Collection<Tag> placeTags) {
+            threads.add(Thread.currentThread());
+            return super.accepts(placeTags);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package se.racasse.raclette.lunch;
+
+import org.junit.Test;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceScore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SuggestResultTest {
+
+    @Test
+    public void topCollectorKeepsExactOrderOfTheBestScores() throws Exception {
+        final Random random = new Random(3);
+        final List<PlaceScore> scores = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            scores.add(placeScore(i, "place" + random.nextInt(500), random.nextInt(40) / 2f));
+        }
+        final List<PlaceScore> sorted = scores.stream().sorted(LunchSuggestor::compareScore).collect(toList());
+
+        for (int limit : new int[]{1, 10, 100, 5000, 10000}) {
+            final SuggestResult sequential = scores.stream()
+                    .collect(SuggestResult.topCollector(limit, LunchSuggestor::compareScore));
+            final SuggestResult parallel = scores.parallelStream()
+                    .collect(SuggestResult.topCollector(limit, LunchSuggestor::compareScore));
+            final int expectedSize = Math.min(limit, scores.size());
+            assertEquals(expectedSize, sequential.scores.size());
+            assertEquals(expectedSize, parallel.scores.size());
+            assertEquals(scores.size(), sequential.totalCount);
+            assertEquals(scores.size(), parallel.totalCount);
+            for (int i = 0; i < expectedSize; i++) {
+                assertSame(sorted.get(i), sequential.scores.get(i));
+                assertSame(sorted.get(i), parallel.scores.get(i));
+            }
+        }
+    }
+
+    private static PlaceScore placeScore(int id, String name, float score) {
+        final Place place = new Place();
+        place.id = id;
+        place.name = name;
+        final PlaceScore placeScore = new PlaceScore();
+        placeScore.place = place;
+        placeScore.score = score;
+        return placeScore;
+    }
+}
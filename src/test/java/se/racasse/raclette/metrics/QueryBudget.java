@@ -0,0 +1,15 @@
+package se.racasse.raclette.metrics;
+
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static QueryStats assertAtMost(int budget, Runnable runnable) {
+        final QueryStats stats = QueryCounter.measure(runnable);
+        if (stats.total() > budget) {
+            throw new AssertionError(String.format("Expected at most %d statements but was %s", budget, stats));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,48 @@
+package se.racasse.raclette.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimingInterceptorTest {
+
+    @Test
+    public void timersAreLookedUpOncePerMethodAndOutcome() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final AtomicInteger lookups = new AtomicInteger();
+        final ProxyFactory factory = new ProxyFactory(new Supplier<String>() {
+            private int calls;
+
+            @Override
+            public String get() {
+                if (++calls % 3 == 0) {
+                    throw new IllegalStateException();
+                }
+                return "ok";
+            }
+        });
+        factory.addAdvice(new TimingInterceptor(() -> {
+            lookups.incrementAndGet();
+            return registry;
+        }, method -> "timed", method -> Tags.of("method", method.getName())));
+        @SuppressWarnings("unchecked") final Supplier<String> proxy = (Supplier<String>) factory.getProxy();
+
+        for (int i = 0; i < 9; i++) {
+            try {
+                proxy.get();
+            } catch (IllegalStateException expected) {
+            }
+        }
+
+        assertEquals(2, lookups.get());
+        assertEquals(6, registry.find("timed").tags("exception", "none").timer().count());
+        assertEquals(3, registry.find("timed").tags("exception", "IllegalStateException").timer().count());
+    }
+}
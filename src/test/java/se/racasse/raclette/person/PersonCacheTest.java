@@ -0,0 +1,31 @@
+package se.racasse.raclette.person;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PersonCacheTest {
+
+    private final PersonCache cache = new PersonCache(10);
+
+    @Test
+    public void personLoadedBeforeAnInvalidationIsNotCached() {
+        final long generation = cache.generation();
+        cache.invalidate(1);
+
+        cache.put(person(1, "Anna"), generation);
+
+        assertFalse(cache.getById(1).isPresent());
+        cache.put(person(1, "Anna"), cache.generation());
+        assertTrue(cache.getById(1).isPresent());
+        assertTrue(cache.getByName("ANNA").isPresent());
+    }
+
+    private static Person person(int id, String name) {
+        final Person person = new Person();
+        person.id = id;
+        person.name = name;
+        return person;
+    }
+}
@@ -0,0 +1,32 @@
+package se.racasse.raclette.place;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PlaceCatalogTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void namesAreMatchedRegardlessOfTheDefaultLocale() {
+        Locale.setDefault(new Locale("tr", "TR"));
+        final PlaceCatalog catalog = new PlaceCatalog(mock(PlaceDao.class));
+        final Place place = new Place();
+        place.id = 1;
+        place.name = "IKEA";
+        catalog.putPlace(place);
+
+        assertTrue(catalog.snapshot().getByName("ikea").isPresent());
+        assertTrue(catalog.snapshot().getByName("Ikea").isPresent());
+    }
+}
@@ -0,0 +1,48 @@
+package se.racasse.raclette.place;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import se.racasse.raclette.Actions;
+import se.racasse.raclette.person.Person;
+import se.racasse.raclette.vote.VoteType;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+public class PlaceVoteCountTest {
+
+    @Autowired
+    private Actions actions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void repeatedVotesAreFoldedIntoOneRow() throws Exception {
+        actions.addPlace("counted");
+        actions.addPerson("dave");
+        actions.addVote("dave", "counted", VoteType.UP);
+        actions.addVote("dave", "counted", VoteType.UP);
+        actions.addVote("dave", "counted", VoteType.UP);
+        actions.addVote("dave", "counted", VoteType.DOWN);
+
+        final Place place = actions.getPlace("counted").place.get();
+        assertEquals(1, place.upVotes.size());
+        assertEquals(3, place.upVotes.iterator().next().count);
+        assertEquals(1, place.downVotes.size());
+        assertEquals(3, place.countVotes(VoteType.UP, place.upVotes.iterator().next().personId));
+
+        final Person person = actions.getPerson("dave").person.get();
+        assertEquals(4, person.placeVotes.stream().mapToInt(v -> v.count).sum());
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from place_vote_count where place_id = ?", Integer.class, place.id).intValue());
+    }
+}
@@ -0,0 +1,74 @@
+package se.racasse.raclette.rest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@AutoConfigureMockMvc
+public class LunchEventStreamTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void lunchChangesAreStreamed() throws Exception {
+        mvc.perform(post("/persons").contentType(MediaType.TEXT_PLAIN).content("streamer")).andExpect(status().isOk());
+        mvc.perform(post("/places").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Streamed\"}"))
+                .andExpect(status().isOk());
+        final String flipped = mvc.perform(post("/places").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"zz flipped\"}")).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        mvc.perform(post("/lunchtimes").contentType(MediaType.TEXT_PLAIN).content("2030-01-01")).andExpect(status().isOk());
+
+        final MvcResult stream = mvc.perform(get("/lunches/events")).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(put("/lunchtimes/2030-01-01/participants/streamer")).andExpect(status().isOk());
+        final MvcResult placeVote = mvc.perform(post("/votes").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"person\": \"streamer\", \"place\": \"zz flipped\", \"type\": \"UP\"}]"))
+                .andReturn();
+        mvc.perform(asyncDispatch(placeVote)).andExpect(status().isOk());
+        final MvcResult vote = mvc.perform(post("/votes").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"person\": \"streamer\", \"place\": \"Streamed\", \"type\": \"UP\", \"lunch\": true}]"))
+                .andReturn();
+        mvc.perform(asyncDispatch(vote)).andExpect(status().isOk());
+        final MvcResult decision = mvc.perform(put("/lunches/2030-01-01")).andReturn();
+        mvc.perform(asyncDispatch(decision)).andExpect(status().isOk());
+
+        final String events = awaitEvent(stream, "event:decided");
+        assertTrue(events, events.contains("event:leader\ndata:{\"type\":\"LEADER\",\"date\":\"2030-01-01\""));
+        assertTrue(events, events.contains("event:joined\ndata:{\"type\":\"JOINED\",\"date\":\"2030-01-01\",\"personId\":"));
+        assertTrue(events, events.contains("event:voted\ndata:{\"type\":\"VOTED\",\"date\":\"2030-01-01\",\"personId\":"));
+        final int flip = events.indexOf("event:leader\ndata:{\"type\":\"LEADER\",\"date\":\"2030-01-01\",\"placeId\":" + flipped + "}");
+        assertTrue(events, flip > events.indexOf("event:joined"));
+        assertTrue(events, flip < events.indexOf("event:voted"));
+        assertTrue(events, events.indexOf("event:joined") < events.indexOf("event:voted"));
+        assertTrue(events, events.indexOf("event:voted") < events.indexOf("event:decided"));
+    }
+
+    private static String awaitEvent(MvcResult stream, String event) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(event) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
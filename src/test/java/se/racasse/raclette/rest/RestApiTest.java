@@ -0,0 +1,95 @@
+package se.racasse.raclette.rest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@AutoConfigureMockMvc
+public class RestApiTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void placesAreNotSentAgainUntilTheCatalogChanges() throws Exception {
+        final MvcResult first = mvc.perform(get("/places")).andExpect(status().isOk()).andReturn();
+        final String etag = first.getResponse().getHeader("ETag");
+
+        mvc.perform(get("/places").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mvc.perform(post("/places").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"etagged\"}"))
+                .andExpect(status().isOk());
+        final MvcResult changed = mvc.perform(get("/places").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+        mvc.perform(get("/places").header("If-None-Match", changed.getResponse().getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void lunchIsDecidedAsynchronously() throws Exception {
+        final MvcResult pending = mvc.perform(put("/lunches/2017-05-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+    }
+
+    @Test
+    public void votesAreAnsweredInTheirOrder() throws Exception {
+        mvc.perform(post("/persons").contentType(MediaType.TEXT_PLAIN).content("rest-voter")).andExpect(status().isOk());
+        mvc.perform(post("/places").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"rest-voted\"}"))
+                .andExpect(status().isOk());
+
+        final MvcResult pending = mvc.perform(post("/votes").contentType(MediaType.APPLICATION_JSON).content("[" +
+                "{\"person\": \"rest-voter\", \"place\": \"rest-voted\", \"type\": \"UP\"}," +
+                "null," +
+                "{\"person\": \"nobody\", \"place\": \"rest-voted\", \"type\": \"UP\"}," +
+                "{\"person\": \"rest-voter\", \"place\": \"rest-voted\"}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].accepted").value(true))
+                .andExpect(jsonPath("$[1].accepted").value(false))
+                .andExpect(jsonPath("$[2].errorMessage").value("I know no person called 'nobody'"))
+                .andExpect(jsonPath("$[3].errorMessage").value("A vote must be UP or DOWN"));
+    }
+
+    @Test
+    public void missingVotesAreABadRequest() throws Exception {
+        mvc.perform(post("/votes").contentType(MediaType.APPLICATION_JSON).content("null"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/votes").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,158 @@
+package se.racasse.raclette.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.sql.DataSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RestExecutorTest {
+
+    private static final DataSource DATA_SOURCE = new DriverManagerDataSource("jdbc:h2:mem:rest-executor;DB_CLOSE_DELAY=-1");
+
+    private final PlatformTransactionManager transactionManager = new DataSourceTransactionManager(DATA_SOURCE);
+    private final RestExecutor executor = new RestExecutor(new SimpleMeterRegistry(), transactionManager, 1, 1, 100);
+
+    @After
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    // What the servlet container does once the request has been async for raclette.rest.timeout ms.
+    private static void timeOut(MvcResult result) throws Exception {
+        final MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
+    @Test
+    public void resultIsSetFromTheWorker() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final DeferredResult<ResponseEntity<Integer>> result = executor.submit(() -> 42);
+        result.setResultHandler(r -> done.countDown());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(ResponseEntity.ok(42), result.getResult());
+    }
+
+    @Test
+    public void timedOutRequestGetsServiceUnavailableAndLeavesTheQueue() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final MockMvc mvc = MockMvcBuilders.standaloneSetup(new Object() {
+            @GetMapping("blocking")
+            @ResponseBody
+            public DeferredResult<ResponseEntity<Integer>> blocking() {
+                return executor.submit(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 1;
+                });
+            }
+
+            @GetMapping("queued")
+            @ResponseBody
+            public DeferredResult<ResponseEntity<Integer>> queued() {
+                return executor.submit(() -> 2);
+            }
+        }).build();
+        try {
+            final MvcResult blocking = mvc.perform(get("/blocking")).andExpect(request().asyncStarted()).andReturn();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final MvcResult queued = mvc.perform(get("/queued")).andExpect(request().asyncStarted()).andReturn();
+
+            timeOut(queued);
+
+            mvc.perform(asyncDispatch(queued)).andExpect(status().isServiceUnavailable());
+            final DeferredResult<ResponseEntity<Integer>> next = executor.submit(() -> 3);
+            assertFalse(next.isSetOrExpired());
+
+            // Already running, so it may still commit and must not claim to be unavailable.
+            timeOut(blocking);
+            mvc.perform(asyncDispatch(blocking)).andExpect(status().isGatewayTimeout());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void startedWriteThatTimesOutIsRolledBack() throws Exception {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(DATA_SOURCE);
+        jdbcTemplate.execute("create table if not exists vote_count (count int)");
+        jdbcTemplate.update("delete from vote_count");
+        final RestExecutor slow = new RestExecutor(new SimpleMeterRegistry(), transactionManager, 1, 1, 1000);
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final DeferredResult<ResponseEntity<Integer>> result = slow.submit(() -> {
+                jdbcTemplate.update("insert into vote_count values (1)");
+                try {
+                    Thread.sleep(1500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return jdbcTemplate.update("update vote_count set count = count + 1");
+            });
+            result.setResultHandler(r -> done.countDown());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity<?>) result.getResult()).getStatusCode());
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from vote_count", Integer.class).intValue());
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    public void requestsBeyondTheQueueGetServiceUnavailable() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> 2);
+
+        final DeferredResult<ResponseEntity<Integer>> rejected = executor.submit(() -> 3);
+        release.countDown();
+
+        assertTrue(rejected.isSetOrExpired());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity<?>) rejected.getResult()).getStatusCode());
+    }
+}
@@ -0,0 +1,83 @@
+package se.racasse.raclette.slack;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SlackCommandExecutorTest {
+
+    private final SlackCommandExecutor executor = new SlackCommandExecutor(new SimpleMeterRegistry(), 4, 1000, false);
+
+    @After
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    public void commandsOfTheSameUserKeepTheirOrder() throws Exception {
+        final List<Integer> anna = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> bertil = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(200);
+        for (int i = 0; i < 100; i++) {
+            final int command = i;
+            assertTrue(executor.submit("anna", () -> {
+                anna.add(command);
+                done.countDown();
+            }));
+            assertTrue(executor.submit("bertil", () -> {
+                bertil.add(command);
+                done.countDown();
+            }));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        final List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        assertEquals(expected, anna);
+        assertEquals(expected, bertil);
+    }
+
+    @Test
+    public void commandThrowingAnErrorReleasesItsKey() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        assertTrue(executor.submit("anna", () -> {
+            throw new AssertionError("boom");
+        }));
+        assertTrue(executor.submit("anna", done::countDown));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, executor.pending());
+    }
+
+    @Test
+    public void commandsBeyondTheQueueDepthAreRejected() throws Exception {
+        final SlackCommandExecutor small = new SlackCommandExecutor(new SimpleMeterRegistry(), 1, 2, false);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        assertTrue(small.submit("anna", blocked));
+        assertTrue(small.submit("bertil", blocked));
+        assertFalse(small.submit("cecilia", blocked));
+
+        release.countDown();
+        small.shutdown();
+        assertEquals(0, small.pending());
+    }
+}
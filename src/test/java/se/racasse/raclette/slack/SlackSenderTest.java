@@ -0,0 +1,102 @@
+package se.racasse.raclette.slack;
+
+import com.google.common.base.Joiner;
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SlackSenderTest {
+
+    private static final SlackSender.Digest JOINED = new SlackSender.Digest(names -> Joiner.on(", ").join(names));
+
+    private final SlackSession session = mock(SlackSession.class);
+
+    @Test
+    public void burstIsSentAsOneDigest() throws Exception {
+        final SlackSender sender = start(1000);
+        final SlackChannel lunch = channel("lunch");
+        sender.send(lunch, "first");
+        verify(session, timeout(1000)).sendMessage(lunch, "first");
+
+        sender.send(lunch, JOINED, "anna");
+        sender.send(lunch, JOINED, "bertil");
+        sender.send(lunch, JOINED, "cecilia");
+        assertEquals(1, sender.queueSize());
+        verify(session, timeout(3000)).sendMessage(lunch, "anna, bertil, cecilia");
+        sender.stop();
+    }
+
+    @Test
+    public void itemsSentTogetherAreNotSplitOnAnIdleChannel() throws Exception {
+        final SlackSender sender = start(1000);
+        final SlackChannel lunch = channel("lunch");
+        sender.send(lunch, JOINED, Arrays.asList("anna", "bertil", "cecilia"));
+        verify(session, timeout(1000)).sendMessage(lunch, "anna, bertil, cecilia");
+        sender.stop();
+        verify(session, never()).sendMessage(lunch, "anna");
+    }
+
+    @Test
+    public void fullDigestStartsANewMessage() throws Exception {
+        final SlackSender sender = new SlackSender(session, new SimpleMeterRegistry(), 1000, 2, 2, 5000);
+        sender.start();
+        final SlackChannel lunch = channel("lunch");
+        sender.send(lunch, "first");
+        verify(session, timeout(1000)).sendMessage(lunch, "first");
+
+        for (String name : new String[]{"anna", "bertil", "cecilia", "david", "erik"}) {
+            sender.send(lunch, JOINED, name);
+        }
+        assertEquals(2, sender.queueSize());
+        sender.stop();
+
+        verify(session).sendMessage(lunch, "anna, bertil");
+        verify(session).sendMessage(lunch, "cecilia, david");
+        verify(session, never()).sendMessage(lunch, "erik");
+    }
+
+    @Test
+    public void queuedMessagesAreDrainedOnStop() throws Exception {
+        final SlackSender sender = start(20);
+        final SlackChannel lunch = channel("lunch");
+        final SlackChannel direct = channel("direct");
+        for (int i = 0; i < 5; i++) {
+            sender.send(lunch, "lunch " + i);
+            sender.send(direct, "direct " + i);
+        }
+        sender.stop();
+
+        final InOrder lunchOrder = inOrder(session);
+        final InOrder directOrder = inOrder(session);
+        for (int i = 0; i < 5; i++) {
+            lunchOrder.verify(session).sendMessage(lunch, "lunch " + i);
+            directOrder.verify(session).sendMessage(direct, "direct " + i);
+        }
+        assertEquals(0, sender.queueSize());
+    }
+
+    private SlackSender start(long minIntervalMillis) {
+        final SlackSender sender = new SlackSender(session, new SimpleMeterRegistry(), minIntervalMillis, 100, 50, 5000);
+        sender.start();
+        return sender;
+    }
+
+    private static SlackChannel channel(String id) {
+        final SlackChannel channel = mock(SlackChannel.class);
+        when(channel.getId()).thenReturn(id);
+        when(channel.getName()).thenReturn(id);
+        return channel;
+    }
+}
@@ -0,0 +1,9 @@
+package se.racasse.raclette.storage;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("memory")
+public class InMemoryStorageContractTest extends StorageContractTest {
+}
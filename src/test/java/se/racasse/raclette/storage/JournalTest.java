@@ -0,0 +1,146 @@
+package se.racasse.raclette.storage;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JournalTest {
+
+    private static final LocalDate DATE = LocalDate.of(2017, 6, 1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Journal> journals = new ArrayList<>();
+
+    @After
+    public void closeJournals() throws IOException {
+        for (Journal journal : journals) {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void stateSurvivesARestart() throws Exception {
+        MemoryStore store = open(1 << 20);
+        final int place = new InMemoryPlaceDao(store).insertPlace(place("journaled"));
+        final int person = new InMemoryPersonDao(store).insertPerson("writer");
+        new InMemoryPlaceDao(store).insertPlaceTag(place, "soup");
+        new InMemoryPlaceDao(store).insertVote(person, place, VoteType.UP);
+        new InMemoryPersonDao(store).insertTag(person, "soup", TagType.PREFER);
+        new InMemoryPersonDao(store).insertTag(person, "salad", TagType.REQUIRE);
+        store.compact();
+        new InMemoryPlaceDao(store).insertVote(person, place, VoteType.UP);
+        new InMemoryPersonDao(store).deleteTag(person, "salad", TagType.REQUIRE);
+        final InMemoryLunchDao lunchDao = new InMemoryLunchDao(store);
+        lunchDao.insertLunchTime(DATE);
+        lunchDao.insertLunchParticipant(DATE, person);
+        lunchDao.insertLunchVote(person, DATE, place, VoteType.DOWN);
+        lunchDao.setLunch(DATE, place);
+
+        store = reopen(1 << 20);
+        final InMemoryPersonDao personDao = new InMemoryPersonDao(store);
+        assertEquals(person, personDao.getPersonByName("writer").get().id);
+        assertEquals(ImmutableSet.of(new Tag("soup")), ImmutableSet.copyOf(personDao.getTags(person, TagType.PREFER)));
+        assertTrue(personDao.getTags(person, TagType.REQUIRE).isEmpty());
+        final InMemoryPlaceDao placeDao = new InMemoryPlaceDao(store);
+        assertEquals(ImmutableSet.of(new Tag("soup")), ImmutableSet.copyOf(placeDao.getPlaceTags(place)));
+        final Collection<Vote> votes = placeDao.getPlaceVotes(Collections.singleton(place));
+        assertEquals(1, votes.size());
+        assertEquals(2, votes.iterator().next().count);
+        final InMemoryLunchDao replayed = new InMemoryLunchDao(store);
+        assertEquals(DATE, replayed.getLatestLunchTime());
+        assertTrue(replayed.isParticipant(DATE, person));
+        assertEquals(VoteType.DOWN, replayed.getParticipantLunchVotes(DATE).iterator().next().type);
+        assertEquals(DATE, replayed.getLatestLunchPerPlace(DATE.plusDays(1)).get(place));
+        assertEquals(place + 1, placeDao.insertPlace(place("next")));
+    }
+
+    @Test
+    public void fullJournalIsCompacted() throws Exception {
+        MemoryStore store = open(256);
+        final int place = new InMemoryPlaceDao(store).insertPlace(place("popular"));
+        for (int i = 0; i < 100; i++) {
+            new InMemoryPlaceDao(store).insertVote(1, place, VoteType.UP);
+        }
+
+        store = reopen(256);
+        assertEquals(100, new InMemoryPlaceDao(store).getPlaceVotes(Collections.singleton(place)).iterator().next().count);
+    }
+
+    @Test
+    public void eventThatCannotBeJournaledIsSnapshotted() throws Exception {
+        MemoryStore store = open(64);
+        final String name = Strings.repeat("long name ", 10);
+        final int person = new InMemoryPersonDao(store).insertPerson(name);
+
+        store = reopen(64);
+        assertEquals(person, new InMemoryPersonDao(store).getPersonByName(name).get().id);
+    }
+
+    @Test
+    public void tornRecordIsIgnored() throws Exception {
+        final MemoryStore store = open(1 << 10);
+        new InMemoryPersonDao(store).insertPerson("kept");
+        new InMemoryPersonDao(store).insertPerson("torn");
+        closeJournals();
+        journals.clear();
+        final Path file = folder.getRoot().toPath().resolve("journal.bin");
+        final byte[] bytes = Files.readAllBytes(file);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 1;
+        Files.write(file, bytes);
+
+        final InMemoryPersonDao personDao = new InMemoryPersonDao(open(1 << 10));
+        assertTrue(personDao.getPersonByName("kept").isPresent());
+        assertFalse(personDao.getPersonByName("torn").isPresent());
+        personDao.insertPerson("appended");
+        assertEquals(ImmutableSet.of("kept", "appended"),
+                new InMemoryPersonDao(reopen(1 << 10)).getPersons(ImmutableSet.of(1, 2, 3)).stream().map(p -> p.name).collect(toSet()));
+    }
+
+    private MemoryStore open(int size) {
+        final Journal journal = new Journal(folder.getRoot().getPath(), size, false);
+        journals.add(journal);
+        final MemoryStore store = new MemoryStore(journal);
+        store.open();
+        return store;
+    }
+
+    private MemoryStore reopen(int size) throws IOException {
+        closeJournals();
+        journals.clear();
+        return open(size);
+    }
+
+    private static Place place(String name) {
+        final Place place = new Place();
+        place.name = name;
+        return place;
+    }
+}
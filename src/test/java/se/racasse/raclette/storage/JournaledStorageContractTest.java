@@ -0,0 +1,33 @@
+package se.racasse.raclette.storage;
+
+import org.junit.ClassRule;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+// The context is closed before the journal folder is deleted. The small journal
+// also has these tests go through compaction.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "raclette.journal.dir=${raclette.test.journal-dir}",
+        "raclette.journal.size=65536"
+})
+@ActiveProfiles("memory")
+@DirtiesContext
+public class JournaledStorageContractTest extends StorageContractTest {
+
+    @ClassRule
+    public static final TemporaryFolder journalDir = new TemporaryFolder() {
+        @Override
+        protected void before() throws Throwable {
+            super.before();
+            System.setProperty("raclette.test.journal-dir", getRoot().getPath());
+        }
+
+        @Override
+        protected void after() {
+            System.clearProperty("raclette.test.journal-dir");
+            super.after();
+        }
+    };
+}
@@ -0,0 +1,243 @@
+package se.racasse.raclette.storage;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.junit4.SpringRunner;
+import se.racasse.raclette.lunch.LunchDao;
+import se.racasse.raclette.person.PersonDao;
+import se.racasse.raclette.place.Place;
+import se.racasse.raclette.place.PlaceDao;
+import se.racasse.raclette.tag.Tag;
+import se.racasse.raclette.tag.TagType;
+import se.racasse.raclette.vote.Vote;
+import se.racasse.raclette.vote.VoteType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// Every storage engine must pass these tests. Tests share one store, so each uses its own names and dates.
+@RunWith(SpringRunner.class)
+public abstract class StorageContractTest {
+
+    @Autowired
+    private PlaceDao placeDao;
+    @Autowired
+    private PersonDao personDao;
+    @Autowired
+    private LunchDao lunchDao;
+
+    @Test
+    public void placesKeepTheirTags() throws Exception {
+        final int first = insertPlace("tagged one");
+        final int second = insertPlace("tagged two");
+        placeDao.insertPlaceTag(first, "pizza");
+        placeDao.insertPlaceTag(first, "salad");
+        placeDao.insertPlaceTag(second, "sushi");
+        placeDao.deletePlaceTag(first, "salad");
+
+        final Set<String> names = placeDao.getAllPlaces().stream().map(p -> p.name).collect(toSet());
+        assertTrue(names.containsAll(Arrays.asList("tagged one", "tagged two")));
+        assertEquals(ImmutableSet.of(new Tag("pizza")), ImmutableSet.copyOf(placeDao.getPlaceTags(first)));
+        final Multimap<Integer, Tag> tags = placeDao.getPlaceTags(Arrays.asList(first, second));
+        assertEquals(ImmutableSet.of(new Tag("pizza")), ImmutableSet.copyOf(tags.get(first)));
+        assertEquals(ImmutableSet.of(new Tag("sushi")), ImmutableSet.copyOf(tags.get(second)));
+        assertTrue(placeDao.getPlaceTags(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void placeVotesAreCountedPerPersonAndType() throws Exception {
+        final int place = insertPlace("voted place");
+        final int person = personDao.insertPerson("voter");
+        placeDao.insertVote(person, place, VoteType.UP);
+        placeDao.insertVote(person, place, VoteType.UP);
+        placeDao.insertVote(person, place, VoteType.DOWN);
+
+        for (Collection<Vote> votes : Arrays.asList(
+                placeDao.getPlaceVotes(Collections.singleton(place)),
+                personDao.getPlaceVotes(Collections.singleton(person)))) {
+            assertEquals(2, votes.size());
+            for (Vote vote : votes) {
+                assertEquals(place, vote.placeId);
+                assertEquals("voted place", vote.placeName);
+                assertEquals(person, vote.personId);
+                assertEquals("voter", vote.personName);
+                assertEquals(vote.type == VoteType.UP ? 2 : 1, vote.count);
+            }
+        }
+        assertTrue(placeDao.getPlaceVotes(Collections.emptyList()).isEmpty());
+        assertTrue(personDao.getPlaceVotes(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void votesAreInsertedInBatches() throws Exception {
+        final LocalDate date = LocalDate.of(2017, 7, 1);
+        final int place = insertPlace("batched place");
+        final int person = personDao.insertPerson("batch voter");
+        placeDao.insertVote(person, place, VoteType.UP);
+        placeDao.insertVotes(Arrays.asList(vote(person, place, VoteType.UP, 2), vote(person, place, VoteType.DOWN, 1)));
+        lunchDao.insertLunchParticipant(date, person);
+        lunchDao.insertLunchVotes(date, Arrays.asList(vote(person, place, VoteType.UP, 1), vote(person, place, VoteType.DOWN, 1)));
+
+        final Collection<Vote> votes = placeDao.getPlaceVotes(Collections.singleton(place));
+        assertEquals(ImmutableSet.of("UP 3", "DOWN 1"), votes.stream().map(v -> v.type + " " + v.count).collect(toSet()));
+        final Collection<Vote> lunchVotes = lunchDao.getParticipantLunchVotes(date);
+        assertEquals(1, lunchVotes.size());
+        assertEquals(VoteType.DOWN, lunchVotes.iterator().next().type);
+    }
+
+    @Test
+    public void personsAreFoundByIdAndName() throws Exception {
+        final int first = personDao.insertPerson("first person");
+        final int second = personDao.insertPerson("second person");
+
+        assertEquals("first person", personDao.getPerson(first).name);
+        assertEquals(second, personDao.getPersonByName("second person").get().id);
+        assertEquals(first, personDao.getPersonRefByName("first person").get().id);
+        assertFalse(personDao.getPersonByName("nobody").isPresent());
+        assertFalse(personDao.getPersonRefByName("nobody").isPresent());
+        assertEquals(ImmutableSet.of("first person", "second person"),
+                personDao.getPersons(Arrays.asList(first, second)).stream().map(p -> p.name).collect(toSet()));
+        assertTrue(personDao.getPersons(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void personRefsAreFoundByNames() throws Exception {
+        final int first = personDao.insertPerson("named one");
+        final int second = personDao.insertPerson("named two");
+
+        assertEquals(ImmutableSet.of(first, second), personDao.getPersonRefsByName(Arrays.asList("named one", "named two", "unnamed"))
+                .stream().map(p -> p.id).collect(toSet()));
+        assertTrue(personDao.getPersonRefsByName(Collections.emptyList()).isEmpty());
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void personNamesAreUnique() throws Exception {
+        personDao.insertPerson("twin");
+        personDao.insertPerson("twin");
+    }
+
+    @Test
+    public void personsKeepTheirTagsPerType() throws Exception {
+        final int first = personDao.insertPerson("picky");
+        final int second = personDao.insertPerson("easy");
+        personDao.insertTag(first, "vegan", TagType.REQUIRE);
+        personDao.insertTag(first, "thai", TagType.PREFER);
+        personDao.insertTag(first, "curry", TagType.PREFER);
+        personDao.insertTag(second, "burger", TagType.PREFER);
+        personDao.deleteTag(first, "curry", TagType.PREFER);
+
+        assertEquals(ImmutableSet.of(new Tag("thai")), ImmutableSet.copyOf(personDao.getTags(first, TagType.PREFER)));
+        final Table<Integer, TagType, Collection<Tag>> tags = personDao.getTags(Arrays.asList(first, second));
+        assertEquals(ImmutableSet.of(new Tag("vegan")), ImmutableSet.copyOf(tags.get(first, TagType.REQUIRE)));
+        assertEquals(ImmutableSet.of(new Tag("thai")), ImmutableSet.copyOf(tags.get(first, TagType.PREFER)));
+        assertEquals(ImmutableSet.of(new Tag("burger")), ImmutableSet.copyOf(tags.get(second, TagType.PREFER)));
+        assertNull(tags.get(second, TagType.REQUIRE));
+    }
+
+    @Test
+    public void latestLunchTimeIsTheMostRecent() throws Exception {
+        lunchDao.insertLunchTime(LocalDate.of(2100, 1, 2));
+        lunchDao.insertLunchTime(LocalDate.of(2100, 1, 1));
+        assertEquals(LocalDate.of(2100, 1, 2), lunchDao.getLatestLunchTime());
+    }
+
+    @Test
+    public void participantsJoinAndLeave() throws Exception {
+        final LocalDate date = LocalDate.of(2017, 3, 1);
+        final int stays = personDao.insertPerson("stays");
+        final int leaves = personDao.insertPerson("leaves");
+        lunchDao.insertLunchParticipant(date, stays);
+        lunchDao.insertLunchParticipant(date, leaves);
+        lunchDao.removeLunchParticipant(date, leaves);
+
+        assertTrue(lunchDao.isParticipant(date, stays));
+        assertFalse(lunchDao.isParticipant(date, leaves));
+        assertFalse(lunchDao.isParticipant(date.plusDays(1), stays));
+        assertEquals(ImmutableSet.of(stays), ImmutableSet.copyOf(lunchDao.getLunchParticipants(date)));
+        assertEquals(ImmutableSet.of("stays"),
+                personDao.getParticipatingPersons(date).stream().map(p -> p.name).collect(toSet()));
+    }
+
+    @Test
+    public void participantsAreInsertedInBulk() throws Exception {
+        final LocalDate date = LocalDate.of(2017, 3, 2);
+        final int early = personDao.insertPerson("early");
+        final int late = personDao.insertPerson("late");
+        lunchDao.insertLunchParticipant(date, early);
+        lunchDao.insertLunchParticipants(date, Arrays.asList(early, late));
+        lunchDao.insertLunchParticipants(date, Collections.emptyList());
+
+        assertEquals(ImmutableSet.of(early, late), ImmutableSet.copyOf(lunchDao.getLunchParticipants(date)));
+    }
+
+    @Test
+    public void lunchVotesAreReplacedAndFilteredByParticipation() throws Exception {
+        final LocalDate date = LocalDate.of(2017, 4, 1);
+        final int place = insertPlace("lunch voted");
+        final int other = insertPlace("lunch ignored");
+        final int participant = personDao.insertPerson("participant");
+        final int bystander = personDao.insertPerson("bystander");
+        lunchDao.insertLunchParticipant(date, participant);
+        lunchDao.insertLunchVote(participant, date, place, VoteType.UP);
+        lunchDao.insertLunchVote(participant, date, place, VoteType.DOWN);
+        lunchDao.insertLunchVote(participant, date, other, VoteType.UP);
+        lunchDao.insertLunchVote(bystander, date, place, VoteType.UP);
+
+        final Collection<Vote> participantVotes = lunchDao.getParticipantLunchVotes(date);
+        assertEquals(2, participantVotes.size());
+        assertTrue(participantVotes.stream().allMatch(v -> v.personId == participant && "participant".equals(v.personName)));
+        assertTrue(participantVotes.stream().anyMatch(v -> v.placeId == place && v.type == VoteType.DOWN && "lunch voted".equals(v.placeName)));
+
+        final Collection<Vote> placeVotes = lunchDao.getLunchVotesByPlaces(date, Collections.singleton(place));
+        assertEquals(ImmutableSet.of(participant, bystander), placeVotes.stream().map(v -> v.personId).collect(toSet()));
+
+        lunchDao.removeLunchVotes(date, participant);
+        assertTrue(lunchDao.getParticipantLunchVotes(date).isEmpty());
+        assertEquals(1, lunchDao.getLunchVotesByPlaces(date, Collections.singleton(place)).size());
+    }
+
+    @Test
+    public void latestLunchPerPlaceIsBeforeTheGivenDate() throws Exception {
+        final int first = insertPlace("lunched often");
+        final int second = insertPlace("lunched once");
+        lunchDao.setLunch(LocalDate.of(2017, 5, 1), first);
+        lunchDao.setLunch(LocalDate.of(2017, 5, 2), first);
+        lunchDao.setLunch(LocalDate.of(2017, 5, 3), second);
+        lunchDao.setLunch(LocalDate.of(2017, 5, 3), first);
+        lunchDao.setLunch(LocalDate.of(2017, 5, 4), second);
+
+        final Map<Integer, LocalDate> latest = lunchDao.getLatestLunchPerPlace(LocalDate.of(2017, 5, 4));
+        assertEquals(LocalDate.of(2017, 5, 3), latest.get(first));
+        assertFalse(latest.containsKey(second));
+    }
+
+    private static Vote vote(int personId, int placeId, VoteType type, int count) {
+        final Vote vote = new Vote();
+        vote.personId = personId;
+        vote.placeId = placeId;
+        vote.type = type;
+        vote.count = count;
+        return vote;
+    }
+
+    private int insertPlace(String name) {
+        final Place place = new Place();
+        place.name = name;
+        return placeDao.insertPlace(place);
+    }
+}
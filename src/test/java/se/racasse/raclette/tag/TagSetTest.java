@@ -0,0 +1,67 @@
+package se.racasse.raclette.tag;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TagSetTest {
+
+    @Test
+    public void behavesLikeASetOfTags() throws Exception {
+        final TagSet tagSet = new TagSet();
+        assertTrue(tagSet.add(new Tag("burger")));
+        assertTrue(tagSet.add(new Tag("pizza")));
+        assertFalse(tagSet.add(new Tag("burger")));
+        assertEquals(2, tagSet.size());
+        assertTrue(tagSet.contains(new Tag("pizza")));
+        assertTrue(tagSet.remove(new Tag("pizza")));
+        assertFalse(tagSet.contains(new Tag("pizza")));
+        assertEquals(ImmutableSet.of(new Tag("burger")), tagSet);
+    }
+
+    @Test
+    public void containsAllAndIntersectionSizeMatchSetSemantics() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            new Tag("filler" + i);
+        }
+        final Set<Tag> place = tags("burger", "buffe", "filler150", "close");
+        final Set<Tag> required = tags("close", "filler150");
+        final Set<Tag> preferred = tags("buffe", "filler150", "filler7", "pizza");
+
+        assertTrue(TagSet.copyOf(place).containsAll(TagSet.copyOf(required)));
+        assertFalse(TagSet.copyOf(required).containsAll(TagSet.copyOf(place)));
+        assertTrue(TagSet.copyOf(place).containsAll(new TagSet()));
+        assertEquals(2, TagSet.copyOf(preferred).intersectionSize(TagSet.copyOf(place)));
+        assertEquals(2, TagSet.copyOf(place).intersectionSize(TagSet.copyOf(preferred)));
+    }
+
+    @Test
+    public void tagsThatAreOnlyLookedUpAreNotInterned() throws Exception {
+        final TagSet tagSet = TagSet.copyOf(tags("burger"));
+
+        assertFalse(tagSet.contains(new Tag("never stored")));
+        assertFalse(tagSet.remove(new Tag("never stored either")));
+        assertFalse(tagSet.containsAll(Arrays.asList(new Tag("burger"), new Tag("nor this"))));
+
+        assertEquals(TagDictionary.NONE, TagDictionary.lookup("never stored"));
+        assertEquals(TagDictionary.NONE, TagDictionary.lookup("never stored either"));
+        assertEquals(TagDictionary.NONE, TagDictionary.lookup("nor this"));
+        assertTrue(tagSet.contains(new Tag("burger")));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutableCopyRejectsChanges() throws Exception {
+        TagSet.immutableCopyOf(tags("burger")).add(new Tag("pizza"));
+    }
+
+    private static Set<Tag> tags(String... names) {
+        return Arrays.stream(names).map(Tag::new).collect(toSet());
+    }
+}
@@ -0,0 +1,44 @@
+package se.racasse.raclette.vote;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class VoteCounterTest {
+
+    @Test
+    public void countsMatchAHashMapThroughResizes() throws Exception {
+        final Random random = new Random(42);
+        final VoteCounter counter = new VoteCounter();
+        final Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            final int key = random.nextInt(2000) - 1000;
+            counter.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+        assertEquals(expected.size(), counter.size());
+        for (int key = -1100; key < 1100; key++) {
+            assertEquals(expected.getOrDefault(key, 0).intValue(), counter.get(key));
+        }
+    }
+
+    @Test
+    public void countByWeighsAggregatedVotes() throws Exception {
+        final VoteCounter counter = VoteCounter.countBy(Arrays.asList(vote(1, 3), vote(2, 1), vote(1, 2)), v -> v.personId);
+        assertEquals(2, counter.size());
+        assertEquals(5, counter.get(1));
+        assertEquals(1, counter.get(2));
+    }
+
+    private static Vote vote(int personId, int count) {
+        final Vote vote = new Vote();
+        vote.personId = personId;
+        vote.count = count;
+        return vote;
+    }
+}